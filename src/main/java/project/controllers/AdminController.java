@@ -1,16 +1,25 @@
 package project.controllers;
 
+import java.util.Collections;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import project.exceptions.ForbiddenException;
+import project.models.CacheStats;
 import project.models.entities.User;
 import project.services.AdminService;
+import project.services.CommentService;
+import project.services.PhotoService;
+import project.services.SearchCacheService;
 
 
 @RestController
@@ -21,6 +30,30 @@ public class AdminController {
 	@Autowired
 	AdminService adminService;
 	
+	@Autowired
+	SearchCacheService searchCacheService;
+	
+	@Autowired
+	CommentService commentService;
+	
+	@Autowired
+	PhotoService photoService;
+	
+	@PostMapping("/ratings/backfill")
+	public Map<String, Integer> backfillRatings() {
+		return Collections.singletonMap("result", commentService.backfillRatings());
+	}
+	
+	@PostMapping("/photos/migrate")
+	public Map<String, Integer> migratePhotos() {
+		return Collections.singletonMap("result", photoService.migrateBlobs());
+	}
+	
+	@GetMapping("/search-cache")
+	public CacheStats searchCacheStats() {
+		return searchCacheService.stats();
+	}
+	
 	@PutMapping
 	public User update(@RequestParam int userId, @RequestParam(required = false) boolean locked, @AuthenticationPrincipal User admin) {
 		if(admin == null || admin.getId() == userId) throw new ForbiddenException();
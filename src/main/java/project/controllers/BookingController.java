@@ -4,21 +4,29 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import project.models.Hold;
+import project.models.Quote;
 import project.models.entities.Booking;
+import project.models.entities.User;
 import project.services.BookingService;
+import project.utils.CursorUtils;
 
 @RestController
 @RequestMapping("/api/bookings")
-@CrossOrigin("http://localhost:4200")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = CursorUtils.NEXT_CURSOR_HEADER)
 public class BookingController {
 
 	@Autowired
@@ -26,8 +34,31 @@ public class BookingController {
 	
 	@PostMapping
 	@ResponseStatus(HttpStatus.CREATED)
-	public Booking create(@RequestBody Booking booking) {
-		return this.bookingService.create(booking);
+	public Booking create(@RequestBody Booking booking, @AuthenticationPrincipal User user) {
+		return this.bookingService.create(booking, user);
+	}
+	
+	@PostMapping("/quote")
+	public Quote quote(@RequestBody Booking booking) {
+		return bookingService.quote(booking);
+	}
+	
+	@PostMapping("/holds")
+	@ResponseStatus(HttpStatus.CREATED)
+	public Hold hold(@RequestBody Booking booking, @AuthenticationPrincipal User user) {
+		return bookingService.hold(booking, user);
+	}
+	
+	@DeleteMapping("/holds/{id}")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public void release(@PathVariable String id, @AuthenticationPrincipal User user) {
+		bookingService.release(id, user);
+	}
+	
+	@PostMapping("/batch")
+	@ResponseStatus(HttpStatus.CREATED)
+	public List<Booking> createAll(@RequestBody List<Booking> bookings, @AuthenticationPrincipal User user) {
+		return bookingService.createAll(bookings, user);
 	}
 	
 	@GetMapping("/{id}")
@@ -36,8 +67,10 @@ public class BookingController {
 	}
 	
 	@GetMapping("/rooms/{roomId}")
-	public List<Booking> findByRoom(@PathVariable int roomId) {
-		return bookingService.findByRoom(roomId);
+	public ResponseEntity<List<Booking>> findByRoom(@PathVariable int roomId,
+			@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "" + CursorUtils.DEFAULT_LIMIT) int limit) {
+		return CursorUtils.toResponse(bookingService.findByRoom(roomId, after, limit));
 	}
 
 }
@@ -1,22 +1,29 @@
 package project.controllers;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import project.models.entities.Comment;
 import project.models.entities.User;
 import project.services.CommentService;
+import project.utils.CursorUtils;
 
 @RestController
 @RequestMapping("/api/comments")
-@CrossOrigin("http://localhost:4200")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = CursorUtils.NEXT_CURSOR_HEADER)
 public class CommentController {
 	
 	@Autowired
@@ -27,6 +34,13 @@ public class CommentController {
 	public Comment create(@RequestBody Comment comment, @AuthenticationPrincipal User user){
 		return commentService.create(comment, user);
 	}
+	
+	@GetMapping("/rooms/{roomId}")
+	public ResponseEntity<List<Comment>> findByRoom(@PathVariable int roomId,
+			@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "" + CursorUtils.DEFAULT_LIMIT) int limit) {
+		return CursorUtils.toResponse(commentService.findByRoom(roomId, after, limit));
+	}
 
 	
 }
@@ -4,7 +4,10 @@ import java.util.Collections;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import project.models.entities.Photo;
 import project.models.entities.User;
 import project.services.PhotoService;
 
@@ -35,9 +39,19 @@ public class PhotoController {
 		return Collections.singletonMap("result", "Photos enregistrées");
 	}
 
-	@GetMapping(value = "/{id}", produces = "image/jpg")
-	public byte[] findById(@PathVariable int id) {
-		return photoService.findById(id);
+	/**
+	 * Le fichier est transmis sans être chargé en mémoire. Son empreinte sert
+	 * d'ETag, le contenu d'une empreinte ne pouvant pas changer. Seul un type
+	 * d'image autorisé est renvoyé, et le navigateur ne doit pas en deviner un
+	 * autre.
+	 */
+	@GetMapping("/{id}")
+	public ResponseEntity<Resource> findById(@PathVariable int id) {
+		Photo photo = photoService.findById(id);
+		Resource file = photoService.load(photo);
+		MediaType type = PhotoService.imageType(photo.getContentType()).orElse(MediaType.IMAGE_JPEG);
+		return ResponseEntity.ok().contentType(type).eTag(photo.getHash()).header("X-Content-Type-Options", "nosniff")
+				.body(file);
 	}
 
 }
@@ -1,7 +1,9 @@
 package project.controllers;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,14 +21,22 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import project.models.Cluster;
+import project.models.Facets;
+import project.models.Interval;
+import project.models.RoomSummary;
 import project.models.SearchRoomParams;
+import project.models.Suggestion;
+import project.models.Volume;
 import project.models.entities.Room;
 import project.models.entities.User;
 import project.services.RoomService;
+import project.services.SuggestService;
+import project.utils.CursorUtils;
 
 @RestController
 @RequestMapping("/api/rooms")
-@CrossOrigin("http://localhost:4200")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = CursorUtils.NEXT_CURSOR_HEADER)
 public class RoomController {
 
 	@Autowired
@@ -39,26 +49,49 @@ public class RoomController {
 	}
 
 	@GetMapping
-	public ResponseEntity<Object> all(@RequestParam(required = false) String name,
-			@RequestParam(required = false) String city, @RequestParam(required = false) String date,
-			@RequestParam(required = false) Integer zipCode, @RequestParam(required = false) Double lat,
-			@RequestParam(required = false) Double lon, @RequestParam(required = false) String type,
-			@RequestParam(required = false) String equipment, @RequestParam(required = false) String event) {
+	public ResponseEntity<?> all(@RequestParam(required = false) String name, SearchRoomParams params,
+			@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "" + CursorUtils.DEFAULT_LIMIT) int limit) {
 		if (name != null) {
 			return ResponseEntity.ok(Collections.singletonMap("result", roomService.exists(name)));
 		}
-		SearchRoomParams params = new SearchRoomParams(city, zipCode, date, lat, lon, type, equipment, event);
-		return ResponseEntity.ok(roomService.findAll(params));
+		return CursorUtils.toResponse(roomService.findAll(params, after, limit));
+	}
+
+	@GetMapping("/clusters")
+	public List<Cluster> clusters(@RequestParam String bbox, @RequestParam int zoom) {
+		return roomService.findClusters(bbox, zoom);
+	}
+
+	@GetMapping("/facets")
+	public Facets facets(@RequestParam(required = false) String type, @RequestParam(required = false) String equipment,
+			@RequestParam(required = false) String event, @RequestParam(required = false) Volume volume,
+			@RequestParam(required = false) String city) {
+		Map<String, String> filters = new HashMap<>();
+		filters.put("type", type);
+		filters.put("equipment", equipment);
+		filters.put("event", event);
+		filters.put("volume", volume == null ? null : volume.name());
+		filters.put("city", city);
+		return roomService.findFacets(filters);
+	}
+
+	@GetMapping("/suggest")
+	public List<Suggestion> suggest(@RequestParam String prefix,
+			@RequestParam(defaultValue = "" + SuggestService.MAX_SUGGESTIONS) int limit) {
+		return roomService.suggest(prefix, limit);
 	}
 
 	@GetMapping("/search")
-	public List<Room> search(@RequestParam String query) {
-		return roomService.search(query);
+	public ResponseEntity<List<RoomSummary>> search(@RequestParam String query, @RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "" + CursorUtils.DEFAULT_LIMIT) int limit) {
+		return CursorUtils.toResponse(roomService.search(query, after, limit));
 	}
 
 	@GetMapping("/users/{id}")
-	public List<Room> allByUser(@PathVariable int id) {
-		return roomService.findByUserId(id);
+	public ResponseEntity<List<RoomSummary>> allByUser(@PathVariable int id, @RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "" + CursorUtils.DEFAULT_LIMIT) int limit) {
+		return CursorUtils.toResponse(roomService.findByUserId(id, after, limit));
 	}
 
 	@GetMapping("/{id}")
@@ -66,6 +99,11 @@ public class RoomController {
 		return roomService.findById(id);
 	}
 
+	@GetMapping("/{id}/availability")
+	public List<Interval> availability(@PathVariable int id, @RequestParam String from, @RequestParam String to) {
+		return roomService.findAvailability(id, from, to);
+	}
+
 	@PutMapping
 	public Room updateRoom(@RequestBody Room room, @AuthenticationPrincipal User user) {
 		return roomService.update(room, user);
@@ -0,0 +1,14 @@
+package project.exceptions;
+
+public class BadRequestException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+	
+	public BadRequestException() {
+		super("Requête invalide");
+	}
+	
+	public BadRequestException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,11 @@
+package project.exceptions;
+
+public class HoldNotFoundException extends NotFoundException {
+
+	private static final long serialVersionUID = 1L;
+	
+	public HoldNotFoundException() {
+		super("Aucune pré-réservation correspondante");
+	}
+
+}
@@ -0,0 +1,10 @@
+package project.exceptions;
+
+public class InvalidQuoteException extends ConflictException {
+
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidQuoteException() {
+		super("Le devis est invalide ou a expiré");
+	}
+}
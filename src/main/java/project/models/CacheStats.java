@@ -0,0 +1,23 @@
+package project.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Compteurs d'utilisation d'un cache
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+
+	private long hits;
+
+	private long misses;
+
+	private int size;
+
+}
@@ -0,0 +1,25 @@
+package project.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Regroupement des salles d'une case de la carte
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Cluster {
+
+	private double latitude;
+
+	private double longitude;
+
+	private int count;
+
+	private double minPrice;
+
+}
@@ -0,0 +1,20 @@
+package project.models;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Page d'une liste parcourue par curseur : next est le curseur opaque à passer
+ * pour obtenir la page suivante, null s'il n'y en a pas.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+	private List<T> items;
+
+	private String next;
+
+}
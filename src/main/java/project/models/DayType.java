@@ -0,0 +1,5 @@
+package project.models;
+
+public enum DayType {
+	ALL, WEEKDAY, WEEKEND
+}
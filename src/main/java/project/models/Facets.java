@@ -0,0 +1,24 @@
+package project.models;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Nombre de salles par valeur de chaque facette (type, equipment, event,
+ * volume, city) et nombre total de salles correspondant aux filtres
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Facets {
+
+	private int total;
+
+	private Map<String, Map<String, Integer>> counts;
+
+}
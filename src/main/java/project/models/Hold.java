@@ -0,0 +1,43 @@
+package project.models;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Pré-réservation temporaire de créneaux d'une salle
+ */
+@Getter
+@AllArgsConstructor
+public class Hold {
+
+	private String id;
+
+	private int roomId;
+
+	@JsonIgnore
+	private int clientId;
+
+	private List<Interval> slots;
+
+	@JsonFormat(pattern = "dd/MM/yyyy HH:mm")
+	private LocalDateTime expiresOn;
+
+	/**
+	 * Indiquer si un créneau est entièrement compris dans l'un des intervalles
+	 * bloqués
+	 */
+	public boolean covers(LocalDateTime start, LocalDateTime end) {
+		for (Interval interval : slots) {
+			if (!start.isBefore(interval.getStart()) && !end.isAfter(interval.getEnd()))
+				return true;
+		}
+		return false;
+	}
+
+}
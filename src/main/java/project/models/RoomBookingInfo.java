@@ -0,0 +1,20 @@
+package project.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Informations d'une salle nécessaires à la validation d'une réservation
+ */
+@Getter
+@AllArgsConstructor
+public class RoomBookingInfo {
+
+	private int id;
+
+	private double price;
+
+	// Jours d'ouverture, voir DayMask
+	private int availableDays;
+
+}
@@ -0,0 +1,44 @@
+package project.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import project.models.entities.Room;
+
+/**
+ * Résumé d'une salle pour les listes, lu en une requête sans charger l'entité
+ * ni ses collections
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomSummary {
+
+	private int id;
+
+	private String name;
+
+	private double price;
+
+	private String city;
+
+	private String type;
+
+	private int rating;
+
+	private int capacity;
+
+	// Adresse de la première photo, null si la salle n'en a pas
+	private String coverUrl;
+
+	/**
+	 * Constructeur de la projection JPQL : la note est calculée à partir de la
+	 * somme et du nombre des notes de la salle
+	 */
+	public RoomSummary(int id, String name, double price, String city, String type, int ratingSum, int ratingCount,
+			int capacity, String coverUrl) {
+		this(id, name, price, city, type, Room.rating(ratingSum, ratingCount), capacity, coverUrl);
+	}
+}
@@ -0,0 +1,116 @@
+package project.models;
+
+import java.time.LocalDate;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import project.models.entities.EventType;
+import project.models.entities.Room;
+import project.models.entities.RoomEquipment;
+import project.utils.DateUtils;
+import project.utils.DayMask;
+
+/**
+ * Forme normalisée des critères d'une recherche de salles, servant de clé au
+ * cache des résultats. Une date est réduite à son jour de la semaine, seul
+ * critère qu'elle impose aux salles.
+ */
+@Getter
+@EqualsAndHashCode
+public class SearchKey {
+
+	private final String type;
+
+	private final Integer zipCode;
+
+	private final String city;
+
+	private final Double minPrice;
+
+	private final Double maxPrice;
+
+	private final Integer minCapacity;
+
+	private final Integer maxCapacity;
+
+	private final Double minSize;
+
+	private final Double maxSize;
+
+	private final String equipment;
+
+	private final String event;
+
+	// Jours d'ouverture exigés, 0 si aucun
+	private final int days;
+
+	public SearchKey(SearchRoomParams params) {
+		this.type = params.getType();
+		this.zipCode = params.getZipCode();
+		this.city = params.getCity();
+		this.minPrice = params.getMinPrice();
+		this.maxPrice = params.getMaxPrice();
+		this.minCapacity = params.getMinCapacity();
+		this.maxCapacity = params.getMaxCapacity();
+		this.minSize = params.getMinSize();
+		this.maxSize = params.getMaxSize();
+		this.equipment = params.getEquipment();
+		this.event = params.getEvent();
+		if (params.getDate() != null) {
+			LocalDate date = DateUtils.parseDate(params.getDate());
+			this.days = DayMask.of(date.getDayOfWeek());
+		} else {
+			this.days = 0;
+		}
+	}
+
+	/**
+	 * Indiquer si une salle peut correspondre à ces critères. Le test est
+	 * volontairement large : une valeur absente ou une différence de casse
+	 * n'écarte pas la salle.
+	 *
+	 * @param room la salle
+	 * @return false si la salle ne correspond certainement pas
+	 */
+	public boolean mayMatch(Room room) {
+		if (type != null && room.getType() != null && !type.equalsIgnoreCase(room.getType().getId()))
+			return false;
+		if (room.getAddress() != null) {
+			if (zipCode != null && zipCode != room.getAddress().getZipCode())
+				return false;
+			if (city != null && room.getAddress().getCity() != null
+					&& !city.trim().equalsIgnoreCase(room.getAddress().getCity().trim()))
+				return false;
+		}
+		if (!within(room.getPrice(), minPrice, maxPrice) || !within(room.getSize(), minSize, maxSize))
+			return false;
+		if (!within(room.getMaxCapacity(), minCapacity == null ? null : minCapacity.doubleValue(),
+				maxCapacity == null ? null : maxCapacity.doubleValue()))
+			return false;
+		if ((room.getAvailableDays() & days) != days)
+			return false;
+		if (equipment != null && room.getEquipments() != null && !hasEquipment(room))
+			return false;
+		return event == null || room.getEventTypes() == null || hasEvent(room);
+	}
+
+	private boolean hasEquipment(Room room) {
+		for (RoomEquipment roomEquipment : room.getEquipments()) {
+			if (roomEquipment.getEquipment() == null || equipment.equalsIgnoreCase(roomEquipment.getEquipment().getId()))
+				return true;
+		}
+		return false;
+	}
+
+	private boolean hasEvent(Room room) {
+		for (EventType eventType : room.getEventTypes()) {
+			if (eventType == null || event.equalsIgnoreCase(eventType.getId()))
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean within(double value, Double min, Double max) {
+		return (min == null || value >= min) && (max == null || value <= max);
+	}
+}
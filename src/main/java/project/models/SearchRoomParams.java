@@ -21,10 +21,28 @@ public class SearchRoomParams {
 	
 	private Double lon;
 	
+	private Double radiusKm;
+	
 	private String type;
 	
 	private String equipment;
 	
 	private String event;
+	
+	private String start;
+	
+	private String end;
+	
+	private Integer minCapacity;
+	
+	private Integer maxCapacity;
+	
+	private Double minSize;
+	
+	private Double maxSize;
+	
+	private Double minPrice;
+	
+	private Double maxPrice;
 
 }
@@ -0,0 +1,24 @@
+package project.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Proposition d'autocomplétion : le texte, sa nature (room, city, type, event
+ * ou equipment) et son poids, le nombre de salles concernées
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestion {
+
+	private String text;
+
+	private String kind;
+
+	private int weight;
+
+}
@@ -0,0 +1,20 @@
+package project.models;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Position dans une liste triée par date puis par identifiant, l'identifiant
+ * départageant les éléments de même date.
+ */
+@Getter
+@AllArgsConstructor
+public class TimeCursor {
+
+	private LocalDateTime time;
+
+	private int id;
+
+}
@@ -8,10 +8,17 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
+import javax.persistence.Table;
+import javax.persistence.Transient;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -21,6 +28,16 @@ import lombok.Setter;
 @Setter
 @Entity
 @NoArgsConstructor
+@NamedEntityGraph(name = "Booking.detail", attributeNodes = { @NamedAttributeNode("slots"),
+		@NamedAttributeNode("client"), @NamedAttributeNode(value = "room", subgraph = "room") },
+		subgraphs = @NamedSubgraph(name = "room", attributeNodes = { @NamedAttributeNode("address"),
+				@NamedAttributeNode("type") }))
+@NamedEntityGraph(name = "Booking.list", attributeNodes = { @NamedAttributeNode("client"),
+		@NamedAttributeNode(value = "room", subgraph = "room") },
+		subgraphs = @NamedSubgraph(name = "room", attributeNodes = { @NamedAttributeNode("address"),
+				@NamedAttributeNode("type") }))
+@Table(indexes = { @Index(name = "idx_booking_room", columnList = "room_id"),
+		@Index(name = "idx_booking_client_room", columnList = "client_id, room_id") })
 public class Booking {
 
 	@Id
@@ -33,12 +50,19 @@ public class Booking {
 	private double price;
 
 	@ManyToOne
-	@JsonIgnoreProperties("bookings")
+	@JsonIgnoreProperties({"bookings", "rooms", "favorites"})
 	private User client;
 
 	@ManyToOne
 	@JsonIgnoreProperties(value = { "bookings", "owner", "comments" }, allowSetters = true)
 	private Room room;
 
+	@Transient
+	@JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+	private String quote;
+
+	@Transient
+	@JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+	private String hold;
 
 }
@@ -6,10 +6,14 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonProperty.Access;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -19,6 +23,7 @@ import lombok.Setter;
 @Setter
 @Entity
 @NoArgsConstructor
+@Table(indexes = @Index(name = "idx_comment_room_published_on", columnList = "room_id, publishedOn, id"))
 public class Comment {
 	
 	@Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,11 +36,12 @@ public class Comment {
 	
 	private int rating;
 	
-	@JsonIgnoreProperties({"comments", "bookings", "rooms", "email", "address", "roles"})
+	@JsonIgnoreProperties({"comments", "bookings", "rooms", "favorites", "email", "address", "roles"})
 	@ManyToOne
 	private User author;
 	
-	@JsonIgnoreProperties("comments")
+	// Lu à la création, la liste des commentaires étant déjà celle d'une salle
+	@JsonProperty(access = Access.WRITE_ONLY)
 	@ManyToOne
 	private Room room;
 
@@ -7,7 +7,7 @@ import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.ManyToMany;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -23,7 +23,7 @@ public class EventType {
 	private String id;
 	
 	@ManyToMany
-	@JsonIgnoreProperties("eventTypes")
+	@JsonIgnore
 	private Set<Room> rooms = new HashSet<>();
 
 	public EventType(String id) {
@@ -1,10 +1,10 @@
 package project.models.entities;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 
 import org.hibernate.annotations.Formula;
@@ -25,9 +25,16 @@ public class Photo {
 	@Id @GeneratedValue(strategy = GenerationType.IDENTITY)
 	private int id;
 	
-	@Lob
+	// Empreinte SHA-256 du fichier, conservé par BlobStore
 	@JsonIgnore
-	private byte[] file;
+	@Column(length = 64)
+	private String hash;
+	
+	@JsonIgnore
+	private String contentType;
+	
+	@JsonIgnore
+	private long size;
 	
 	@JsonIgnore
 	private String baseUrl = "http://localhost:8080/api/photos/";
@@ -0,0 +1,44 @@
+package project.models.entities;
+
+import javax.persistence.Embeddable;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import project.models.DayType;
+
+/**
+ * Tarif horaire appliqué à une salle selon le type de jour, la plage horaire et
+ * la saison. Une borne nulle laisse la plage ouverte de ce côté (ex: à partir de
+ * 18h) et deux bornes nulles signifient "sans restriction". Les plages peuvent
+ * passer minuit ou la fin d'année (ex: de 22h à 6h, de novembre à février) ; une
+ * plage horaire dont le début égale la fin est vide.
+ */
+@Getter
+@Setter
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingRule {
+
+	@Enumerated(EnumType.STRING)
+	private DayType days = DayType.ALL;
+
+	// Heure de début incluse (0-23)
+	private Integer fromHour;
+
+	// Heure de fin exclue (1-24)
+	private Integer toHour;
+
+	// Mois de début inclus (1-12)
+	private Integer fromMonth;
+
+	// Mois de fin inclus (1-12)
+	private Integer toMonth;
+
+	private double price;
+
+}
@@ -1,35 +1,51 @@
 package project.models.entities;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
-import javax.persistence.PostLoad;
+import javax.persistence.OrderColumn;
 import javax.persistence.PreRemove;
+import javax.persistence.Table;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import project.models.Volume;
+import project.utils.DayMask;
 
 @Entity
+@NamedEntityGraph(name = "Room.detail", attributeNodes = { @NamedAttributeNode("address"),
+		@NamedAttributeNode("type"), @NamedAttributeNode("owner"), @NamedAttributeNode("photos") })
+@Table(indexes = @Index(name = "idx_room_available_days", columnList = "availableDays"))
 @Getter
 @Setter
 @NoArgsConstructor
+@EntityListeners(RoomListener.class)
 public class Room {
 	
 	@Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,6 +53,11 @@ public class Room {
 	
 	private double price;
 	
+	// Les règles suivantes l'emportent sur les précédentes
+	@ElementCollection
+	@OrderColumn
+	private List<PricingRule> pricingRules = new ArrayList<>();
+	
 	private double size;
 	
 	@Column(unique = true) 
@@ -47,8 +68,10 @@ public class Room {
 	
 	private int maxCapacity;
 	
-	@ElementCollection
-	private Set<String> availableDays;
+	// Jours d'ouverture, voir DayMask
+	@JsonSerialize(converter = DayMask.ToNames.class)
+	@JsonDeserialize(converter = DayMask.FromNames.class)
+	private int availableDays;
 	
 	@Enumerated(EnumType.STRING)
 	private Volume maxVolume;
@@ -63,34 +86,46 @@ public class Room {
 	@ManyToMany(cascade = CascadeType.PERSIST)
 	private Set<RoomEquipment> equipments = new HashSet<>();
 
-	@Column(columnDefinition = "tinyint default 5")
-	private int rating = 5;
+	// Somme et nombre des notes, tenus à jour en base par CommentService
+	@JsonIgnore
+	@Column(columnDefinition = "int default 0 not null", insertable = false, updatable = false)
+	private int ratingSum;
+	
+	@JsonIgnore
+	@Column(columnDefinition = "int default 0 not null", insertable = false, updatable = false)
+	private int ratingCount;
 	
 	@JsonIgnoreProperties("room")
 	@OneToMany(cascade = CascadeType.ALL, mappedBy = "room")
 	private Set<Photo> photos = new HashSet<>();
 	
-	@JsonIgnoreProperties({"rooms", "bookings"})
+	@JsonIgnoreProperties({"rooms", "bookings", "favorites"})
 	@ManyToOne
 	private User owner;
 	
-	@JsonIgnoreProperties({"room", "client"})
+	// Exposées paginées par BookingController
+	@JsonIgnore
 	@OneToMany(mappedBy = "room")
 	private Set<Booking> bookings = new HashSet<>();
 	
-	@JsonIgnoreProperties("room")
+	// Exposés paginés par CommentController
+	@JsonIgnore
 	@OneToMany(mappedBy = "room")
 	private Set<Comment> comments = new HashSet<>();
 	
-	@PostLoad
-	private void calculateRating() {
-		rating = 5;
-		if(!comments.isEmpty()) {
-			for(Comment c: comments) {
-				this.rating += c.getRating();
-			}
-			rating /= comments.size() + 1;
-		}
+	@JsonProperty("rating")
+	public int getRating() {
+		return rating(ratingSum, ratingCount);
+	}
+	
+	/**
+	 * Note moyenne d'une salle, une note initiale de 5 comptant comme un avis
+	 * 
+	 * @param sum   la somme des notes
+	 * @param count le nombre de notes
+	 */
+	public static int rating(long sum, long count) {
+		return (int) ((5 + sum) / (count + 1));
 	}
 	
 	@PreRemove
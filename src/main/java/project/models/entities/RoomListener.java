@@ -0,0 +1,64 @@
+package project.models.entities;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import project.services.AvailabilityService;
+import project.services.FacetService;
+import project.services.LocationService;
+import project.services.PricingService;
+import project.services.RoomSearchService;
+import project.services.SearchCacheService;
+import project.services.SuggestService;
+
+/**
+ * Signale les salles créées, modifiées ou supprimées aux index de recherche,
+ * d'autocomplétion et de facettes. Une salle supprimée, y compris en cascade
+ * avec son propriétaire, est aussi retirée des index de position, des grilles
+ * tarifaires, des bitmaps d'occupation et du cache de recherche.
+ */
+public class RoomListener {
+
+	// Résolu à l'usage : le listener est créé avec l'EntityManagerFactory
+	@Autowired
+	private ObjectProvider<RoomSearchService> roomSearchService;
+
+	@Autowired
+	private ObjectProvider<SuggestService> suggestService;
+
+	@Autowired
+	private ObjectProvider<FacetService> facetService;
+
+	@Autowired
+	private ObjectProvider<LocationService> locationService;
+
+	@Autowired
+	private ObjectProvider<PricingService> pricingService;
+
+	@Autowired
+	private ObjectProvider<AvailabilityService> availabilityService;
+
+	@Autowired
+	private ObjectProvider<SearchCacheService> searchCacheService;
+
+	@PostPersist
+	@PostUpdate
+	public void changed(Room room) {
+		roomSearchService.getObject().markStale(room.getId());
+		suggestService.getObject().requestRebuild();
+		facetService.getObject().markStale(room.getId());
+	}
+
+	@PostRemove
+	public void removed(Room room) {
+		changed(room);
+		locationService.getObject().evict(room.getId());
+		pricingService.getObject().evict(room.getId());
+		availabilityService.getObject().evict(room.getId());
+		searchCacheService.getObject().invalidate(room.getId());
+	}
+}
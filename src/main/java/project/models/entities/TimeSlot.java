@@ -5,6 +5,8 @@ import java.time.LocalDateTime;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 
@@ -14,6 +16,7 @@ import lombok.Setter;
 @Entity
 @Getter
 @Setter
+@Table(indexes = @Index(name = "idx_time_slot_start_end", columnList = "start, end"))
 public class TimeSlot {
 	
 	@Id @GeneratedValue
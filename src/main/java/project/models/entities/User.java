@@ -15,6 +15,9 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToMany;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
 import javax.persistence.PreRemove;
 
@@ -39,6 +42,9 @@ import project.models.Role;
 @NoArgsConstructor
 @DynamicUpdate
 @SelectBeforeUpdate
+@NamedEntityGraph(name = "User.profile", attributeNodes = @NamedAttributeNode(value = "rooms", subgraph = "room"),
+		subgraphs = @NamedSubgraph(name = "room", attributeNodes = { @NamedAttributeNode("address"),
+				@NamedAttributeNode("type") }))
 public class User implements UserDetails {
 
 	private static final long serialVersionUID = 1L;
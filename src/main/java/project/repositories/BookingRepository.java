@@ -1,19 +1,34 @@
 package project.repositories;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import project.models.entities.Booking;
+import project.models.entities.TimeSlot;
 
 public interface BookingRepository extends JpaRepository<Booking, Integer> {
 	
-	@Query("SELECT b FROM Booking b WHERE b.room.id = :id")
-	List<Booking> findByRoomId(@Param("id") int id);
+	@EntityGraph("Booking.detail")
+	Optional<Booking> findDetailById(int id);
 	
-	@Query("SELECT b FROM Booking b WHERE b.client.id = :clientId AND b.room.id = :roomId")
-	List<Booking> findByClientAndRoom(@Param("clientId") int clientId, @Param("roomId") int roomId);
+	// Sans les créneaux : une collection jointe empêcherait la limite en SQL
+	@EntityGraph("Booking.list")
+	@Query("SELECT b FROM Booking b WHERE b.room.id = :id AND b.id > :after ORDER BY b.id")
+	List<Booking> findByRoomIdAfter(@Param("id") int id, @Param("after") int after, Pageable pageable);
+	
+	@Query("SELECT s FROM Booking b JOIN b.slots s WHERE b.room.id = :roomId AND s.end > :after")
+	List<TimeSlot> findSlotsByRoomIdEndingAfter(@Param("roomId") int roomId, @Param("after") LocalDateTime after);
+	
+	@Query("SELECT count(r) > 0 FROM Room r WHERE r.id = :roomId AND EXISTS "
+			+ "(SELECT b.id FROM Booking b JOIN b.slots s WHERE b.room = r AND s.start < :end AND s.end > :start)")
+	boolean existsOverlap(@Param("roomId") int roomId, @Param("start") LocalDateTime start,
+			@Param("end") LocalDateTime end);
 	
 }
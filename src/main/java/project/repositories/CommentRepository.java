@@ -1,5 +1,11 @@
 package project.repositories;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,6 +14,31 @@ import project.models.entities.Comment;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
 	
-	@Query("SELECT count(c) > 0 FROM Comment c WHERE c.room.id = :roomId AND c.author.id = :authorId")
-	public boolean hasComment(@Param("roomId") int roomId, @Param("authorId") int authorId);
+	int NOT_ELIGIBLE = 0;
+	
+	int ELIGIBLE = 1;
+	
+	int ALREADY_COMMENTED = 2;
+	
+	/**
+	 * Droit de l'auteur à commenter la salle, vide si la salle est introuvable :
+	 * ALREADY_COMMENTED s'il l'a déjà commentée, ELIGIBLE si l'un de ses créneaux
+	 * réservés y est terminé, NOT_ELIGIBLE sinon
+	 */
+	@Query("SELECT CASE WHEN EXISTS (SELECT c.id FROM Comment c WHERE c.room = r AND c.author.id = :authorId) "
+			+ "THEN " + ALREADY_COMMENTED + " WHEN EXISTS (SELECT b.id FROM Booking b JOIN b.slots s "
+			+ "WHERE b.client.id = :authorId AND b.room = r AND s.end < :now) THEN " + ELIGIBLE
+			+ " ELSE " + NOT_ELIGIBLE + " END FROM Room r WHERE r.id = :roomId")
+	Optional<Integer> findEligibility(@Param("roomId") int roomId, @Param("authorId") int authorId,
+			@Param("now") LocalDateTime now);
+	
+	@EntityGraph(attributePaths = "author")
+	@Query("SELECT c FROM Comment c WHERE c.room.id = :roomId ORDER BY c.publishedOn DESC, c.id DESC")
+	List<Comment> findLatestByRoomId(@Param("roomId") int roomId, Pageable pageable);
+	
+	@EntityGraph(attributePaths = "author")
+	@Query("SELECT c FROM Comment c WHERE c.room.id = :roomId AND (c.publishedOn < :time "
+			+ "OR (c.publishedOn = :time AND c.id < :id)) ORDER BY c.publishedOn DESC, c.id DESC")
+	List<Comment> findByRoomIdBefore(@Param("roomId") int roomId, @Param("time") LocalDateTime time,
+			@Param("id") int id, Pageable pageable);
 }
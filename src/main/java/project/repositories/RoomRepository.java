@@ -1,33 +1,63 @@
 package project.repositories;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import project.models.entities.PricingRule;
 import project.models.entities.Room;
 
-public interface RoomRepository extends JpaRepository<Room, Integer> {
+public interface RoomRepository extends JpaRepository<Room, Integer>, RoomRepositoryCustom {
 	
-	List<Room> findByAddressCityAndAddressZipCode(String city, int zipCode);
+	Boolean existsByNameIgnoreCase(String name);
 	
-	List<Room> findByOwnerId(int id);
-
-	List<Room> findByAvailableDaysAndAddressCityAndAddressZipCode(String day, String city, int zipCode);
+	@EntityGraph("Room.detail")
+	Optional<Room> findDetailById(int id);
 	
-	List<Room> findByEquipmentsEquipmentId(String equipment);
+	@Query("SELECT p FROM Room r JOIN r.pricingRules p WHERE r.id = :id ORDER BY INDEX(p)")
+	List<PricingRule> findPricingRulesById(@Param("id") int id);
 	
-	List<Room> findByEventTypesId(String event);
-
-	List<Room> findByTypeId(String type);
+	@Query("SELECT r.id, a.latitude, a.longitude, r.price FROM Room r JOIN r.address a")
+	List<Object[]> findAllLocations();
 	
-	List<Room> findDistinctRoomsByNameContainingOrTypeIdOrEventTypesIdAllIgnoreCase(String name, String type, String eventType);
-
-	Boolean existsByNameIgnoreCase(String name);
+	@Query("SELECT r.id, r.name, t.id, a.city, e.id, q.id FROM Room r LEFT JOIN r.type t LEFT JOIN r.address a "
+			+ "LEFT JOIN r.eventTypes e LEFT JOIN r.equipments re LEFT JOIN re.equipment q")
+	List<Object[]> findSearchFields();
+	
+	@Query("SELECT r.id, r.name, t.id, a.city, e.id, q.id FROM Room r LEFT JOIN r.type t LEFT JOIN r.address a "
+			+ "LEFT JOIN r.eventTypes e LEFT JOIN r.equipments re LEFT JOIN re.equipment q WHERE r.id = :id")
+	List<Object[]> findSearchFieldsById(@Param("id") int id);
+	
+	@Query("SELECT r.id, t.id, a.city, r.maxVolume, e.id, q.id FROM Room r LEFT JOIN r.type t LEFT JOIN r.address a "
+			+ "LEFT JOIN r.eventTypes e LEFT JOIN r.equipments re LEFT JOIN re.equipment q")
+	List<Object[]> findFacetFields();
+	
+	@Query("SELECT r.id, t.id, a.city, r.maxVolume, e.id, q.id FROM Room r LEFT JOIN r.type t LEFT JOIN r.address a "
+			+ "LEFT JOIN r.eventTypes e LEFT JOIN r.equipments re LEFT JOIN re.equipment q WHERE r.id = :id")
+	List<Object[]> findFacetFieldsById(@Param("id") int id);
+	
+	@Query("SELECT r.price, r.availableDays FROM Room r WHERE r.id = :id")
+	List<Object[]> findBookingInfoById(@Param("id") int id);
+	
+	@Modifying
+	@Query("UPDATE Room r SET r.ratingSum = r.ratingSum + :rating, r.ratingCount = r.ratingCount + 1 WHERE r.id = :id")
+	int addRating(@Param("id") int id, @Param("rating") int rating);
+	
+	@Modifying
+	@Query("UPDATE Room r SET r.ratingSum = r.ratingSum - "
+			+ "(SELECT COALESCE(SUM(c.rating), 0) FROM Comment c WHERE c.room = r AND c.author.id = :authorId), "
+			+ "r.ratingCount = r.ratingCount - (SELECT COUNT(c) FROM Comment c WHERE c.room = r AND c.author.id = :authorId) "
+			+ "WHERE EXISTS (SELECT c FROM Comment c WHERE c.room = r AND c.author.id = :authorId)")
+	int removeRatingsOf(@Param("authorId") int authorId);
 	
-	@Query("SELECT r FROM Room r WHERE (r.address.latitude < :lat + 0.03 AND r.address.latitude > :lat - 0.03) "
-			+ "AND (r.address.longitude < :lon + 0.03 AND r.address.longitude > :lon - 0.03)")
-	List<Room> findByCoordinates(@Param("lat") double lat, @Param("lon") double lon);
+	@Modifying
+	@Query("UPDATE Room r SET r.ratingSum = (SELECT COALESCE(SUM(c.rating), 0) FROM Comment c WHERE c.room = r), "
+			+ "r.ratingCount = (SELECT COUNT(c) FROM Comment c WHERE c.room = r)")
+	int recomputeRatings();
 	
 }
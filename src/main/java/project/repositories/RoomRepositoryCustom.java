@@ -0,0 +1,33 @@
+package project.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import project.models.RoomSummary;
+import project.models.entities.Room;
+
+public interface RoomRepositoryCustom {
+
+	/**
+	 * Lire le résumé des salles correspondant à une spécification par ordre
+	 * d'identifiant, en une requête sans charger les entités
+	 *
+	 * @param spec  les critères de recherche
+	 * @param after l'identifiant après lequel commencer
+	 * @param limit le nombre maximum de salles
+	 * @return les résumés des salles d'identifiant supérieur à after
+	 */
+	List<RoomSummary> findSummariesAfter(Specification<Room> spec, int after, int limit);
+
+	/**
+	 * Lire les identifiants des salles correspondant à une spécification par
+	 * ordre croissant
+	 *
+	 * @param spec  les critères de recherche
+	 * @param limit le nombre maximum d'identifiants
+	 * @return les identifiants des salles
+	 */
+	List<Integer> findIds(Specification<Room> spec, int limit);
+
+}
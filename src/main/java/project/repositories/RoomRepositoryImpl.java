@@ -0,0 +1,64 @@
+package project.repositories;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import project.models.RoomSummary;
+import project.models.entities.Address;
+import project.models.entities.Photo;
+import project.models.entities.Room;
+import project.models.entities.RoomType;
+
+public class RoomRepositoryImpl implements RoomRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<RoomSummary> findSummariesAfter(Specification<Room> spec, int after, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<RoomSummary> query = cb.createQuery(RoomSummary.class);
+		Root<Room> room = query.from(Room.class);
+		Join<Room, Address> address = room.join("address", JoinType.LEFT);
+		Join<Room, RoomType> type = room.join("type", JoinType.LEFT);
+		// Photo de couverture en sous-requête corrélée, sans jointure multipliant
+		// les lignes
+		Subquery<Integer> firstPhoto = query.subquery(Integer.class);
+		Root<Photo> first = firstPhoto.from(Photo.class);
+		firstPhoto.select(cb.min(first.get("id"))).where(cb.equal(first.get("room"), room));
+		Subquery<String> cover = query.subquery(String.class);
+		Root<Photo> photo = cover.from(Photo.class);
+		cover.select(photo.get("url")).where(cb.equal(photo.get("id"), firstPhoto));
+		query.select(cb.construct(RoomSummary.class, room.get("id"), room.get("name"), room.get("price"),
+				address.get("city"), type.get("id"), room.get("ratingSum"), room.get("ratingCount"), room.get("maxCapacity"),
+				cover));
+		Specification<Room> keyset = (root, q, builder) -> builder.greaterThan(root.get("id"), after);
+		query.where(keyset.and(spec).toPredicate(room, query, cb)).orderBy(cb.asc(room.get("id")));
+		return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+	}
+
+	@Override
+	public List<Integer> findIds(Specification<Room> spec, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+		Root<Room> room = query.from(Room.class);
+		query.select(room.get("id"));
+		Predicate predicate = spec.toPredicate(room, query, cb);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+		query.orderBy(cb.asc(room.get("id")));
+		return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+	}
+}
@@ -0,0 +1,99 @@
+package project.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import project.models.entities.Booking;
+import project.models.entities.Room;
+import project.models.entities.TimeSlot;
+import project.utils.DayMask;
+
+/**
+ * Critères de recherche des salles combinables entre eux. Les collections sont
+ * filtrées par des sous-requêtes EXISTS pour ne jamais dupliquer une salle.
+ */
+public final class RoomSpecifications {
+
+	private RoomSpecifications() {
+	}
+
+	public static Specification<Room> idIn(Collection<Integer> ids) {
+		return (room, query, cb) -> room.get("id").in(ids);
+	}
+
+	public static Specification<Room> idNotIn(Collection<Integer> ids) {
+		return (room, query, cb) -> cb.not(room.get("id").in(ids));
+	}
+
+	public static Specification<Room> ownedBy(int userId) {
+		return (room, query, cb) -> cb.equal(room.get("owner").get("id"), userId);
+	}
+
+	public static Specification<Room> hasType(String type) {
+		return (room, query, cb) -> cb.equal(room.get("type").get("id"), type);
+	}
+
+	public static Specification<Room> inCity(String city) {
+		return (room, query, cb) -> cb.equal(room.get("address").get("city"), city);
+	}
+
+	public static Specification<Room> hasZipCode(int zipCode) {
+		return (room, query, cb) -> cb.equal(room.get("address").get("zipCode"), zipCode);
+	}
+
+	public static Specification<Room> hasEquipment(String equipment) {
+		return (room, query, cb) -> {
+			Subquery<Integer> sub = query.subquery(Integer.class);
+			Root<Room> correlated = sub.correlate(room);
+			sub.select(cb.literal(1)).where(
+					cb.equal(correlated.join("equipments").get("equipment").get("id"), equipment));
+			return cb.exists(sub);
+		};
+	}
+
+	public static Specification<Room> hasEventType(String event) {
+		return (room, query, cb) -> {
+			Subquery<Integer> sub = query.subquery(Integer.class);
+			Root<Room> correlated = sub.correlate(room);
+			sub.select(cb.literal(1)).where(cb.equal(correlated.join("eventTypes").get("id"), event));
+			return cb.exists(sub);
+		};
+	}
+
+	public static <T extends Comparable<? super T>> Specification<Room> between(String attribute, T min, T max) {
+		return (room, query, cb) -> {
+			if (min != null && max != null)
+				return cb.between(room.<T>get(attribute), min, max);
+			return min != null ? cb.greaterThanOrEqualTo(room.<T>get(attribute), min)
+					: cb.lessThanOrEqualTo(room.<T>get(attribute), max);
+		};
+	}
+
+	/**
+	 * Salles ouvertes chacun des jours du masque donné
+	 */
+	public static Specification<Room> openOn(int days) {
+		return (room, query, cb) -> room.get("availableDays").in(DayMask.supersetsOf(days));
+	}
+
+	/**
+	 * Salles sans aucun créneau réservé chevauchant la période. Les
+	 * pré-réservations, conservées en mémoire, sont exclues à part avec idNotIn.
+	 */
+	public static Specification<Room> freeBetween(LocalDateTime start, LocalDateTime end) {
+		return (room, query, cb) -> {
+			Subquery<Integer> sub = query.subquery(Integer.class);
+			Root<Booking> booking = sub.from(Booking.class);
+			Join<Booking, TimeSlot> slot = booking.join("slots");
+			sub.select(booking.get("id")).where(cb.equal(booking.get("room"), room),
+					cb.lessThan(slot.get("start"), end), cb.greaterThan(slot.get("end"), start));
+			return cb.not(cb.exists(sub));
+		};
+	}
+}
@@ -2,6 +2,7 @@ package project.repositories;
 
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import project.models.entities.User;
@@ -10,4 +11,7 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 	
 	Optional<User> findByEmail(String email);
 	boolean existsByEmail(String email);
+	
+	@EntityGraph("User.profile")
+	Optional<User> findProfileById(int id);
 }
@@ -0,0 +1,288 @@
+package project.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Rejeu des créations portant un header Idempotency-Key.
+ *
+ * La première réponse réussie est conservée pendant idempotency.ttl secondes ;
+ * les requêtes suivantes avec la même clé, pour la même route et le même
+ * utilisateur, la reçoivent sans atteindre les services. Un doublon concurrent
+ * attend la fin de la requête en cours, au plus idempotency.wait secondes avant
+ * d'être rejeté en 409. Une requête réutilisant une clé avec un
+ * autre corps est rejetée en 422. Le nombre de réponses conservées est borné,
+ * les plus anciennes étant évincées en premier ; une requête en cours n'est
+ * jamais évincée.
+ *
+ * Le filtre est exécuté après la chaîne Spring Security.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+	public static final String HEADER = "Idempotency-Key";
+
+	private static final Set<String> PATHS = Set.of("/api/bookings", "/api/bookings/batch", "/api/rooms");
+
+	private static final int MAX_KEY_LENGTH = 255;
+
+	@Value("${idempotency.ttl:86400}")
+	private long ttl;
+
+	@Value("${idempotency.max-entries:10000}")
+	private int maxEntries;
+
+	@Value("${idempotency.wait:30}")
+	private long wait;
+
+	// Ordre d'insertion = ordre d'expiration, la durée de vie étant fixe
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+	private static class Entry {
+
+		private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+		private final long expiresAt;
+
+		// Empreinte SHA-256 du corps de la première requête
+		private final byte[] bodyHash;
+
+		private Entry(long expiresAt, byte[] bodyHash) {
+			this.expiresAt = expiresAt;
+			this.bodyHash = bodyHash;
+		}
+	}
+
+	private static class StoredResponse {
+
+		private final int status;
+
+		private final String contentType;
+
+		private final byte[] body;
+
+		private StoredResponse(int status, String contentType, byte[] body) {
+			this.status = status;
+			this.contentType = contentType;
+			this.body = body;
+		}
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		return !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null || !PATHS.contains(path);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String key = request.getHeader(HEADER);
+		if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+			return;
+		}
+		String scope = request.getRequestURI() + "|" + principal() + "|" + key;
+		byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+		byte[] bodyHash = sha256(body);
+		HttpServletRequest cached = new CachedBodyRequest(request, body);
+		while (true) {
+			Entry entry;
+			boolean owner = false;
+			synchronized (entries) {
+				long now = System.currentTimeMillis();
+				evictExpired(now);
+				entry = entries.get(scope);
+				if (entry == null) {
+					entry = new Entry(now + ttl * 1000, bodyHash);
+					entries.put(scope, entry);
+					owner = true;
+					if (entries.size() > maxEntries) {
+						evictEldestDone();
+					}
+				}
+			}
+			if (owner) {
+				execute(scope, entry, cached, response, filterChain);
+				return;
+			}
+			if (!MessageDigest.isEqual(entry.bodyHash, bodyHash)) {
+				response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value());
+				return;
+			}
+			// Requête identique en cours ou déjà traitée : attendre son résultat
+			StoredResponse stored;
+			try {
+				stored = entry.response.get(wait, TimeUnit.SECONDS);
+			} catch (TimeoutException e) {
+				// Le client retentera plus tard plutôt que d'occuper un thread
+				response.sendError(HttpServletResponse.SC_CONFLICT);
+				return;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+				return;
+			} catch (ExecutionException e) {
+				throw new ServletException(e.getCause());
+			}
+			if (stored != null) {
+				response.setStatus(stored.status);
+				if (stored.contentType != null) {
+					response.setContentType(stored.contentType);
+				}
+				response.setContentLength(stored.body.length);
+				response.getOutputStream().write(stored.body);
+				return;
+			}
+			// La première requête a échoué, elle n'est pas conservée : la rejouer
+		}
+	}
+
+	private void execute(String scope, Entry entry, HttpServletRequest request, HttpServletResponse response,
+			FilterChain filterChain) throws ServletException, IOException {
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+		StoredResponse stored = null;
+		try {
+			filterChain.doFilter(request, wrapper);
+			int status = wrapper.getStatus();
+			// Seules les réussites sont rejouées, une erreur peut être retentée
+			if (status >= 200 && status < 300) {
+				stored = new StoredResponse(status, wrapper.getContentType(), wrapper.getContentAsByteArray());
+			}
+			wrapper.copyBodyToResponse();
+		} finally {
+			if (stored == null) {
+				synchronized (entries) {
+					entries.remove(scope, entry);
+				}
+			}
+			entry.response.complete(stored);
+		}
+	}
+
+	private void evictExpired(long now) {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			Entry entry = iterator.next();
+			if (entry.expiresAt > now)
+				break;
+			if (entry.response.isDone())
+				iterator.remove();
+		}
+	}
+
+	/**
+	 * Évincer la plus ancienne réponse terminée. Une requête en cours reste
+	 * conservée : l'évincer laisserait un doublon concurrent l'exécuter à nouveau.
+	 */
+	private void evictEldestDone() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().response.isDone()) {
+				iterator.remove();
+				return;
+			}
+		}
+	}
+
+	private static byte[] sha256(byte[] body) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(body);
+		} catch (NoSuchAlgorithmException e) {
+			// Algorithme requis sur toute JVM
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String principal() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication == null ? "" : authentication.getName();
+	}
+
+	/**
+	 * Requête dont le corps, déjà lu pour calculer son empreinte, peut être relu
+	 */
+	private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+		private final byte[] body;
+
+		private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+			super(request);
+			this.body = body;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream in = new ByteArrayInputStream(body);
+			return new ServletInputStream() {
+
+				@Override
+				public int read() {
+					return in.read();
+				}
+
+				@Override
+				public int read(byte[] buffer, int offset, int length) {
+					return in.read(buffer, offset, length);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return in.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setReadListener(ReadListener listener) {
+					// Le corps est déjà entièrement en mémoire
+					try {
+						listener.onAllDataRead();
+					} catch (IOException e) {
+						listener.onError(e);
+					}
+				}
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() throws UnsupportedEncodingException {
+			String encoding = getCharacterEncoding() == null ? StandardCharsets.UTF_8.name() : getCharacterEncoding();
+			return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), encoding));
+		}
+	}
+}
@@ -2,10 +2,12 @@ package project.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import project.exceptions.UserNotFoundException;
 import project.models.entities.User;
 import project.repositories.UserRepository;
+import project.utils.FetchUtils;
 
 @Service
 public class AdminService {
@@ -13,10 +15,11 @@ public class AdminService {
 	@Autowired
 	private UserRepository userRepository;
 	
+	@Transactional
 	public User update(int userId, boolean locked) {
 		User user = userRepository.findById(userId)
 				.orElseThrow(UserNotFoundException::new);
 		user.setAccountNonLocked(!locked);
-		return userRepository.save(user);
+		return FetchUtils.initialize(userRepository.save(user));
 	}
 }
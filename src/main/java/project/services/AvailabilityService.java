@@ -0,0 +1,116 @@
+package project.services;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import project.models.Interval;
+import project.models.entities.TimeSlot;
+import project.repositories.BookingRepository;
+import project.utils.OccupancyBitmap;
+import project.utils.TransactionUtils;
+
+/**
+ * Index en mémoire des créneaux réservés de chaque salle, servant au calendrier
+ * des disponibilités.
+ *
+ * Un bitmap d'occupation est construit à la première demande pour une salle
+ * puis complété à chaque réservation validée. Seuls les jours à venir sont
+ * conservés : les jours passés ne sont pas chargés et sont oubliés à chaque
+ * ajout, la mémoire ne croît donc pas avec l'historique. Il n'intervient pas dans la
+ * validation des réservations, faite en base par BookingRepository.existsOverlap.
+ */
+@Service
+public class AvailabilityService {
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private HoldService holdService;
+
+	private final Map<Integer, RoomIndex> index = new ConcurrentHashMap<>();
+
+	private static class RoomIndex {
+
+		private final OccupancyBitmap bitmap = new OccupancyBitmap();
+
+		private void add(TimeSlot slot) {
+			if (slot.getEnd().isAfter(slot.getStart())) {
+				bitmap.mark(slot.getStart(), slot.getEnd());
+			}
+		}
+	}
+
+	/**
+	 * Calculer les intervalles libres d'une salle, à la tranche de 15 minutes.
+	 * Les jours passés et les créneaux bloqués par une pré-réservation en cours
+	 * ne sont jamais libres.
+	 *
+	 * @param roomId    l'identifiant de la salle
+	 * @param from      le premier jour (inclus)
+	 * @param to        le dernier jour (inclus)
+	 * @param available indique si la salle ouvre un jour donné
+	 * @return la liste ordonnée des intervalles libres
+	 */
+	public List<Interval> findFreeIntervals(int roomId, LocalDate from, LocalDate to, Predicate<LocalDate> available) {
+		RoomIndex room = index.computeIfAbsent(roomId, this::load);
+		LocalDate today = LocalDate.now();
+		OccupancyBitmap held = new OccupancyBitmap();
+		for (Interval interval : holdService.heldIntervals(roomId)) {
+			held.mark(interval.getStart(), interval.getEnd());
+		}
+		synchronized (room) {
+			return room.bitmap.freeIntervals(from, to, date -> !date.isBefore(today) && available.test(date), held);
+		}
+	}
+
+	/**
+	 * Ajouter les créneaux d'une réservation à l'index. Si une transaction est en
+	 * cours l'ajout est différé après son commit.
+	 *
+	 * @param roomId l'identifiant de la salle
+	 * @param slots  les créneaux réservés
+	 */
+	public void register(int roomId, Collection<TimeSlot> slots) {
+		TransactionUtils.afterCommit(() -> add(roomId, slots));
+	}
+
+	/**
+	 * Retirer une salle de l'index, après le commit de la transaction en cours
+	 *
+	 * @param roomId l'identifiant de la salle
+	 */
+	public void evict(int roomId) {
+		TransactionUtils.afterCommit(() -> index.remove(roomId));
+	}
+
+	private void add(int roomId, Collection<TimeSlot> slots) {
+		// Une salle absente de l'index sera chargée depuis la base à la prochaine
+		// demande
+		index.computeIfPresent(roomId, (id, room) -> {
+			synchronized (room) {
+				for (TimeSlot slot : slots) {
+					room.add(slot);
+				}
+				room.bitmap.pruneBefore(LocalDate.now());
+			}
+			return room;
+		});
+	}
+
+	private RoomIndex load(int roomId) {
+		RoomIndex room = new RoomIndex();
+		LocalDate today = LocalDate.now();
+		for (TimeSlot slot : bookingRepository.findSlotsByRoomIdEndingAfter(roomId, today.atStartOfDay())) {
+			room.add(slot);
+		}
+		return room;
+	}
+}
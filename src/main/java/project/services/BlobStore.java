@@ -0,0 +1,30 @@
+package project.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Stockage de fichiers adressés par leur contenu : un fichier est identifié par
+ * l'empreinte SHA-256 de ses octets, deux envois identiques partageant donc le
+ * même fichier.
+ */
+public interface BlobStore {
+
+	/**
+	 * Enregistrer un fichier, sans le réécrire s'il est déjà présent
+	 *
+	 * @param content le contenu, lu jusqu'à la fin
+	 * @return l'empreinte SHA-256 du contenu en hexadécimal
+	 */
+	String put(InputStream content) throws IOException;
+
+	/**
+	 * @param hash l'empreinte renvoyée par put
+	 * @return le fichier, vide s'il est introuvable
+	 */
+	Optional<Resource> get(String hash);
+
+}
@@ -1,24 +1,41 @@
 package project.services;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.Duration;
-import java.time.format.TextStyle;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import project.exceptions.BadRequestException;
 import project.exceptions.BookingNotFoundException;
 import project.exceptions.DayUnavailableException;
+import project.exceptions.ForbiddenException;
+import project.exceptions.HoldNotFoundException;
+import project.exceptions.InvalidQuoteException;
 import project.exceptions.PriceNotMatchingException;
 import project.exceptions.UnavailableException;
+import project.models.CursorPage;
+import project.models.Hold;
+import project.models.Quote;
+import project.models.RoomBookingInfo;
 import project.models.entities.Booking;
-import project.models.entities.Room;
 import project.models.entities.TimeSlot;
+import project.models.entities.User;
 import project.repositories.BookingRepository;
+import project.utils.CursorUtils;
+import project.utils.DayMask;
+import project.utils.FetchUtils;
+import project.utils.RoomLocks;
 
 @Service
 public class BookingService {
@@ -29,27 +46,178 @@ public class BookingService {
 	@Autowired
 	private RoomService roomService;
 
-	@Value("${COMMISSION}")
-	private double COMMISSION;
-	
-	@Value("${TVA}")
-	private double TVA;
-	
+	@Autowired
+	private AvailabilityService availabilityService;
+
+	@Autowired
+	private QuoteService quoteService;
+
+	@Autowired
+	private PricingService pricingService;
+
+	@Autowired
+	private HoldService holdService;
+
+	@Autowired
+	private RoomLocks roomLocks;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
 	/**
-	 * Enregistrer une réservation
+	 * Enregistrer une réservation. La vérification et l'enregistrement sont
+	 * sérialisés par salle pour éviter les doubles réservations. Si la réservation
+	 * contient un devis signé, la salle n'est pas relue et le prix n'est pas
+	 * recalculé.
 	 * 
 	 * @param booking l'objet de type Booking à enregistrer
+	 * @param user    l'utilisateur authentifié
 	 * @return un objet de type Booking avec un identifiant unique
-	 * @throws UnavailableException si la salle est indisponible
+	 * @throws UnavailableException  si la salle est indisponible ou si la
+	 *                               pré-réservation jointe a expiré
+	 * @throws ForbiddenException    si la pré-réservation jointe n'appartient pas
+	 *                               à l'utilisateur ou ne couvre pas la
+	 *                               réservation
+	 * @throws InvalidQuoteException si le devis est invalide ou expiré
 	 */
-	public Booking create(Booking booking){
-		if (!isBookable(booking)) {
-			throw new UnavailableException();
+	public Booking create(Booking booking, User user){
+		boolean quoted = booking.getQuote() != null;
+		if (quoted && !quoteService.verify(booking)) {
+			throw new InvalidQuoteException();
 		}
-		if (!priceMatch(booking)) {
-			throw new PriceNotMatchingException();
+		return roomLocks.withLock(booking.getRoom().getId(), () -> {
+			RoomBookingInfo room = quoted ? null : roomService.findBookingInfo(booking.getRoom().getId());
+			if (!quoted) {
+				checkDays(booking, room);
+			}
+			checkHold(booking, user);
+			if (!isFree(booking)) {
+				throw new UnavailableException();
+			}
+			if (!quoted && !priceMatch(booking, room)) {
+				throw new PriceNotMatchingException();
+			}
+			Booking saved = bookingRepository.save(booking);
+			availabilityService.register(saved.getRoom().getId(), saved.getSlots());
+			if (booking.getHold() != null) {
+				holdService.release(booking.getHold());
+			}
+			return saved;
+		});
+	}
+
+	/**
+	 * Pré-réserver temporairement des créneaux. Tant qu'elle n'a pas expiré, seule
+	 * une réservation portant l'identifiant de la pré-réservation peut occuper ces
+	 * créneaux.
+	 * 
+	 * @param booking la réservation envisagée
+	 * @param user    l'utilisateur authentifié
+	 * @return un objet de type Hold contenant l'identifiant et l'expiration
+	 * @throws ForbiddenException      si l'utilisateur n'est pas authentifié
+	 * @throws UnavailableException    si un créneau est déjà réservé ou bloqué
+	 * @throws DayUnavailableException si un jour n'est pas réservable
+	 */
+	public Hold hold(Booking booking, User user){
+		if (user == null)
+			throw new ForbiddenException();
+		if (booking.getSlots().isEmpty())
+			throw new BadRequestException();
+		int roomId = booking.getRoom().getId();
+		return roomLocks.withLock(roomId, () -> {
+			checkDays(booking, roomService.findBookingInfo(roomId));
+			if (!isFree(booking)) {
+				throw new UnavailableException();
+			}
+			return holdService.create(roomId, user.getId(), booking.getSlots());
+		});
+	}
+
+	/**
+	 * Libérer une pré-réservation
+	 * 
+	 * @param id   l'identifiant de la pré-réservation
+	 * @param user l'utilisateur authentifié
+	 * @throws HoldNotFoundException si la pré-réservation est introuvable ou expirée
+	 * @throws ForbiddenException    si l'utilisateur n'en est pas l'auteur
+	 */
+	public void release(String id, User user){
+		Hold hold = holdService.find(id);
+		if (hold == null)
+			throw new HoldNotFoundException();
+		if (user == null || hold.getClientId() != user.getId())
+			throw new ForbiddenException();
+		holdService.release(id);
+	}
+
+	/**
+	 * Calculer le prix d'une réservation et le signer
+	 * 
+	 * @param booking la réservation à chiffrer
+	 * @return un objet de type Quote contenant le prix et le jeton à joindre à la
+	 *         réservation
+	 * @throws BadRequestException     si la réservation ne contient aucun créneau
+	 * @throws DayUnavailableException si un jour n'est pas réservable
+	 */
+	public Quote quote(Booking booking){
+		if (booking.getSlots().isEmpty())
+			throw new BadRequestException();
+		RoomBookingInfo room = roomService.findBookingInfo(booking.getRoom().getId());
+		checkDays(booking, room);
+		booking.setPrice(computePrice(booking, room));
+		return quoteService.sign(booking);
+	}
+
+	/**
+	 * Enregistrer plusieurs réservations dans une seule transaction. Chaque salle
+	 * n'est lue qu'une fois et les créneaux sont comparés entre eux ainsi qu'avec
+	 * les réservations existantes : si une réservation échoue, aucune n'est
+	 * enregistrée.
+	 * 
+	 * @param bookings les réservations à enregistrer
+	 * @param user     l'utilisateur authentifié
+	 * @return les réservations avec un identifiant unique
+	 * @throws BadRequestException  si la liste est vide
+	 * @throws UnavailableException si une salle est indisponible ou si une
+	 *                              pré-réservation jointe a expiré
+	 * @throws ForbiddenException   si une pré-réservation jointe n'appartient pas
+	 *                              à l'utilisateur ou ne couvre pas sa réservation
+	 */
+	public List<Booking> createAll(List<Booking> bookings, User user){
+		if (bookings == null || bookings.isEmpty())
+			throw new BadRequestException();
+		Set<Integer> roomIds = new HashSet<>();
+		for (Booking booking : bookings) {
+			roomIds.add(booking.getRoom().getId());
 		}
-		return bookingRepository.save(booking);
+		return roomLocks.withLocks(roomIds, () -> transactionTemplate.execute(status -> {
+			Map<Integer, RoomBookingInfo> rooms = new HashMap<>();
+			Map<Integer, List<TimeSlot>> batch = new HashMap<>();
+			for (Booking booking : bookings) {
+				int roomId = booking.getRoom().getId();
+				RoomBookingInfo room = rooms.computeIfAbsent(roomId, roomService::findBookingInfo);
+				checkDays(booking, room);
+				checkHold(booking, user);
+				if (!isFree(booking)) {
+					throw new UnavailableException();
+				}
+				batch.computeIfAbsent(roomId, id -> new ArrayList<>()).addAll(booking.getSlots());
+				if (!priceMatch(booking, room)) {
+					throw new PriceNotMatchingException();
+				}
+			}
+			for (List<TimeSlot> slots : batch.values()) {
+				checkBatchOverlaps(slots);
+			}
+			List<Booking> saved = bookingRepository.saveAll(bookings);
+			for (Booking booking : saved) {
+				availabilityService.register(booking.getRoom().getId(), booking.getSlots());
+				if (booking.getHold() != null) {
+					holdService.release(booking.getHold());
+				}
+			}
+			return saved;
+		}));
 	}
 
 	/**
@@ -58,59 +226,116 @@ public class BookingService {
 	 * @return un objet de type Booking
 	 * @throws BookingNotFoundException si la réservation est introuvable
 	 */
+	@Transactional(readOnly = true)
 	public Booking findById(int id) {
-		return bookingRepository.findById(id).orElseThrow(BookingNotFoundException::new);
+		Booking booking = bookingRepository.findDetailById(id).orElseThrow(BookingNotFoundException::new);
+		return FetchUtils.initialize(booking);
 	}
 	
 	/**
 	 * Rechercher les réservations d'une salle
 	 * @param roomId l'id de la salle 
-	 * @return un objet de type List<Booking> contenant les réservations
+	 * @param after le curseur de la page précédente, null pour la première
+	 * @param limit le nombre de réservations par page, borné à 100
+	 * @return la page de réservations
 	 * @throws BookingNotFoundException si il n'y a aucune réservation
 	 */
-	public List<Booking> findByRoom(int roomId){
-		List<Booking> bookings = bookingRepository.findByRoomId(roomId);
-		if (bookings.isEmpty())
+	@Transactional(readOnly = true)
+	public CursorPage<Booking> findByRoom(int roomId, String after, int limit){
+		int cursor = CursorUtils.decode(after);
+		int max = CursorUtils.limit(limit);
+		List<Booking> bookings = bookingRepository.findByRoomIdAfter(roomId, cursor, PageRequest.of(0, max + 1));
+		if (bookings.isEmpty() && cursor == 0)
 			throw new BookingNotFoundException();
-		return bookings;
+		for (Booking booking : bookings) {
+			FetchUtils.initialize(booking);
+		}
+		return CursorUtils.page(bookings, max, Booking::getId);
 	}
 
 	/**
-	 * Vérifier si la réservation est possible
+	 * Vérifier que les créneaux tombent sur des jours réservables
 	 * @param booking l'objet de type Booking à tester
-	 * @return true si la réservation est possible ou false sinon
+	 * @param room les informations de la salle réservée
 	 * @throws DayUnavailableException si le jour n'est pas réservable
 	 */
-	private boolean isBookable(Booking booking){
-		Room room = roomService.findById(booking.getRoom().getId());
+	private void checkDays(Booking booking, RoomBookingInfo room){
 		for (TimeSlot slot : booking.getSlots()) {
-			String day = slot.getStart().getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.FRANCE);
-			if (!room.getAvailableDays().contains(day)) {
-				throw new DayUnavailableException(day);
+			DayOfWeek day = slot.getStart().getDayOfWeek();
+			if (!DayMask.contains(room.getAvailableDays(), day)) {
+				throw new DayUnavailableException(DayMask.name(day));
 			}
-			for (Booking b : room.getBookings()) {
-				for (TimeSlot roomSlot : b.getSlots()) {
-					if (slot.getStart().equals(roomSlot.getStart()) || slot.getEnd().equals(roomSlot.getEnd())) {
-						return false;
-					} else if (slot.getStart().isAfter(roomSlot.getStart())
-							&& slot.getEnd().isBefore(roomSlot.getEnd())) {
-						return false;
-					}
-				}
+		}
+	}
+
+	/**
+	 * Vérifier que les créneaux d'un lot ne se chevauchent pas pour une même
+	 * salle : une fois triés par début, chacun doit commencer après la fin la
+	 * plus tardive des précédents
+	 * @param slots les créneaux d'une salle
+	 * @throws UnavailableException si deux créneaux se chevauchent
+	 */
+	private static void checkBatchOverlaps(List<TimeSlot> slots){
+		slots.sort(Comparator.comparing(TimeSlot::getStart));
+		LocalDateTime end = null;
+		for (TimeSlot slot : slots) {
+			if (end != null && slot.getStart().isBefore(end))
+				throw new UnavailableException();
+			if (end == null || slot.getEnd().isAfter(end))
+				end = slot.getEnd();
+		}
+	}
+
+	/**
+	 * Vérifier que la pré-réservation jointe à une réservation, seule à pouvoir
+	 * occuper les créneaux qu'elle bloque, a été faite par l'utilisateur
+	 * authentifié pour la même salle et couvre tous les créneaux réservés. Le
+	 * client indiqué dans la réservation n'est pas une preuve de propriété.
+	 * @param booking l'objet de type Booking à tester
+	 * @param user    l'utilisateur authentifié
+	 * @throws UnavailableException si la pré-réservation est introuvable ou expirée
+	 * @throws ForbiddenException   si elle ne correspond pas à la réservation
+	 */
+	private void checkHold(Booking booking, User user){
+		if (booking.getHold() == null)
+			return;
+		Hold hold = holdService.find(booking.getHold());
+		if (hold == null)
+			throw new UnavailableException();
+		if (user == null || hold.getClientId() != user.getId()
+				|| hold.getRoomId() != booking.getRoom().getId())
+			throw new ForbiddenException();
+		for (TimeSlot slot : booking.getSlots()) {
+			if (!hold.covers(slot.getStart(), slot.getEnd()))
+				throw new ForbiddenException();
+		}
+	}
+
+	/**
+	 * Vérifier qu'aucun créneau n'est déjà réservé ou bloqué par une autre
+	 * pré-réservation. Les créneaux réservés sont cherchés en base par une
+	 * requête indexée sur la période, sans lire l'historique de la salle.
+	 * @param booking l'objet de type Booking à tester
+	 * @return true si la réservation est possible ou false sinon
+	 */
+	private boolean isFree(Booking booking){
+		int roomId = booking.getRoom().getId();
+		for (TimeSlot slot : booking.getSlots()) {
+			if (!slot.getEnd().isAfter(slot.getStart())
+					|| holdService.isHeld(roomId, slot.getStart(), slot.getEnd(), booking.getHold())
+					|| bookingRepository.existsOverlap(roomId, slot.getStart(), slot.getEnd())) {
+				return false;
 			}
 		}
 		return true;
 	}
 	
-	private boolean priceMatch(Booking booking) {
-		Room room = roomService.findById(booking.getRoom().getId());
-		TimeSlot firstSlot = booking.getSlots().iterator().next();
-		long totalHours = (Duration.between(firstSlot.getStart(), firstSlot.getEnd()).toHours()) * booking.getSlots().size();
-		double price = totalHours * room.getPrice();
-		price += price / 100 * COMMISSION;
-		price += price / 100 * TVA;
-		price = BigDecimal.valueOf(price).setScale(1, RoundingMode.FLOOR).doubleValue();
-		return booking.getPrice() == price;
+	private boolean priceMatch(Booking booking, RoomBookingInfo room) {
+		return booking.getPrice() == computePrice(booking, room);
+	}
+
+	private double computePrice(Booking booking, RoomBookingInfo room) {
+		return pricingService.totalCents(room, booking.getSlots()) / 100.0;
 	}
 
 }
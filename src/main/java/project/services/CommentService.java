@@ -4,16 +4,20 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import project.exceptions.CommentExistsException;
 import project.exceptions.ForbiddenException;
-import project.models.entities.Booking;
+import project.exceptions.RoomNotFoundException;
+import project.models.CursorPage;
+import project.models.TimeCursor;
 import project.models.entities.Comment;
-import project.models.entities.TimeSlot;
 import project.models.entities.User;
-import project.repositories.BookingRepository;
 import project.repositories.CommentRepository;
+import project.repositories.RoomRepository;
+import project.utils.CursorUtils;
 
 /**
  * Service de gestion des commentaires.
@@ -28,44 +32,79 @@ public class CommentService {
 	private CommentRepository commentRepository;
 
 	@Autowired
-	private BookingRepository bookingRepository;
+	private RoomRepository roomRepository;
 
 	/**
-	 * Enregistrer un commentaire
+	 * Enregistrer un commentaire et ajouter sa note à celles de la salle dans la
+	 * même transaction
 	 * 
 	 * @param comment l'objet de type Comment à enregistrer
 	 * @param user    l'utilisateur authentifé
 	 * @return un objet de type Comment contenant un identifiant unique
-	 * @throws ForbiddenException si l'utilisateur n'est pas autorisé à commenter 
+	 * @throws ForbiddenException    si l'utilisateur n'est pas autorisé à commenter 
+	 * @throws RoomNotFoundException si la salle est introuvable
 	 */
+	@Transactional
 	public Comment create(Comment comment, User user){
 		if (comment.getAuthor().getId() != user.getId() || !canComment(comment)) {
 			throw new ForbiddenException();
 		}
-		return commentRepository.save(comment);
+		// La date de publication ordonne la liste des commentaires de la salle
+		comment.setPublishedOn(LocalDateTime.now());
+		Comment saved = commentRepository.save(comment);
+		if (roomRepository.addRating(comment.getRoom().getId(), comment.getRating()) == 0)
+			throw new RoomNotFoundException();
+		return saved;
 	}
 
 	/**
-	 * Vérifier si l'utilisateur peut commenter la salle
+	 * Lister les commentaires d'une salle, du plus récent au plus ancien
+	 * 
+	 * @param roomId l'id de la salle
+	 * @param after  le curseur de la page précédente, null pour la première
+	 * @param limit  le nombre de commentaires par page, borné à 100
+	 * @return la page de commentaires
+	 * @throws RoomNotFoundException si la salle est introuvable
+	 */
+	@Transactional(readOnly = true)
+	public CursorPage<Comment> findByRoom(int roomId, String after, int limit){
+		TimeCursor cursor = CursorUtils.decodeTime(after);
+		int max = CursorUtils.limit(limit);
+		PageRequest page = PageRequest.of(0, max + 1);
+		List<Comment> comments = cursor == null ? commentRepository.findLatestByRoomId(roomId, page)
+				: commentRepository.findByRoomIdBefore(roomId, cursor.getTime(), cursor.getId(), page);
+		if (comments.isEmpty() && cursor == null && !roomRepository.existsById(roomId))
+			throw new RoomNotFoundException();
+		return CursorUtils.pageWith(comments, max, comment -> CursorUtils.encode(comment.getPublishedOn(), comment.getId()));
+	}
+
+	/**
+	 * Recalculer la somme et le nombre des notes de toutes les salles à partir
+	 * des commentaires, pour les données antérieures à ces colonnes
+	 * 
+	 * @return le nombre de salles mises à jour
+	 */
+	@Transactional
+	public int backfillRatings(){
+		return roomRepository.recomputeRatings();
+	}
+
+	/**
+	 * Vérifier si l'utilisateur peut commenter la salle, c'est-à-dire s'il y a
+	 * réservé un créneau aujourd'hui terminé, en une seule requête
 	 * 
 	 * @param comment l'objet de type Comment contenant l'id de l'auteur et de la salle
 	 * @return true si l'utilisateur est autorisé ou false sinon
 	 * @throws CommentExistsException si l'auteur a déjà commenté la salle
+	 * @throws RoomNotFoundException  si la salle est introuvable
 	 */
 	private boolean canComment(Comment comment){
-		int clientId = comment.getAuthor().getId();
-		int roomId = comment.getRoom().getId();
-		if (commentRepository.hasComment(roomId, clientId))
+		int eligibility = commentRepository
+				.findEligibility(comment.getRoom().getId(), comment.getAuthor().getId(), LocalDateTime.now())
+				.orElseThrow(RoomNotFoundException::new);
+		if (eligibility == CommentRepository.ALREADY_COMMENTED)
 			throw new CommentExistsException();
-		List<Booking> bookings = bookingRepository.findByClientAndRoom(clientId, roomId);
-		for (Booking booking : bookings) {
-			for (TimeSlot slot : booking.getSlots()) {
-				if (slot.getEnd().isBefore(LocalDateTime.now())) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return eligibility == CommentRepository.ELIGIBLE;
 	}
 
 }
@@ -0,0 +1,103 @@
+package project.services;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import project.models.Facets;
+import project.repositories.RoomRepository;
+import project.utils.FacetIndex;
+import project.utils.TransactionUtils;
+
+/**
+ * Comptage des salles par type, équipement, type d'événement, volume et ville
+ * sur un index de bitmaps en mémoire.
+ *
+ * L'index est construit au premier comptage. Les salles modifiées sont
+ * signalées par RoomListener et réindexées au comptage suivant.
+ */
+@Service
+public class FacetService {
+
+	// Nature des colonnes de RoomRepository.findFacetFields, après l'id
+	private static final String[] FACETS = { "type", "city", "volume", "event", "equipment" };
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	private volatile FacetIndex index;
+
+	private final Set<Integer> stale = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Compter les salles de chaque valeur de facette
+	 *
+	 * @param filters la valeur retenue pour certaines facettes, null sinon
+	 * @return les comptages
+	 */
+	public Facets count(Map<String, String> filters) {
+		FacetIndex current = index();
+		Iterator<Integer> iterator = stale.iterator();
+		while (iterator.hasNext()) {
+			int id = iterator.next();
+			iterator.remove();
+			Map<Integer, Map<String, Set<String>>> documents = toDocuments(roomRepository.findFacetFieldsById(id));
+			if (documents.isEmpty()) {
+				current.remove(id);
+			} else {
+				current.put(id, documents.get(id));
+			}
+		}
+		Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+		int total = current.count(filters, counts);
+		return new Facets(total, counts);
+	}
+
+	/**
+	 * Signaler une salle créée, modifiée ou supprimée, après validation de la
+	 * transaction en cours
+	 *
+	 * @param roomId l'identifiant de la salle
+	 */
+	public void markStale(int roomId) {
+		TransactionUtils.afterCommit(() -> stale.add(roomId));
+	}
+
+	private FacetIndex index() {
+		FacetIndex current = index;
+		if (current == null) {
+			synchronized (this) {
+				current = index;
+				if (current == null) {
+					current = new FacetIndex(FACETS);
+					for (Map.Entry<Integer, Map<String, Set<String>>> document : toDocuments(
+							roomRepository.findFacetFields()).entrySet()) {
+						current.put(document.getKey(), document.getValue());
+					}
+					index = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private static Map<Integer, Map<String, Set<String>>> toDocuments(List<Object[]> rows) {
+		Map<Integer, Map<String, Set<String>>> documents = new HashMap<>();
+		for (Object[] row : rows) {
+			Map<String, Set<String>> values = documents.computeIfAbsent((Integer) row[0], id -> new HashMap<>());
+			for (int i = 1; i < row.length; i++) {
+				if (row[i] != null)
+					values.computeIfAbsent(FACETS[i - 1], facet -> new HashSet<>()).add(row[i].toString());
+			}
+		}
+		return documents;
+	}
+}
@@ -0,0 +1,197 @@
+package project.services;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import project.models.Hold;
+import project.models.Interval;
+import project.models.entities.TimeSlot;
+import project.utils.TimingWheel;
+
+/**
+ * Gestion des pré-réservations temporaires.
+ *
+ * Les pré-réservations sont conservées en mémoire et expirent via une roue
+ * temporelle avançant chaque seconde : le coût d'un tick ne dépend pas du
+ * nombre de pré-réservations en cours.
+ */
+@Service
+public class HoldService {
+
+	private static final long TICK_MILLIS = 1000;
+
+	private static final int WHEEL_SIZE = 1024;
+
+	@Value("${holds.ttl:600}")
+	private long ttl;
+
+	private final TimingWheel<Hold> wheel = new TimingWheel<>(WHEEL_SIZE, TICK_MILLIS, System.currentTimeMillis());
+
+	private final Map<String, TimingWheel.Timeout<Hold>> holds = new ConcurrentHashMap<>();
+
+	private final Map<Integer, Set<Hold>> holdsByRoom = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService ticker;
+
+	@PostConstruct
+	public void start() {
+		ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "holds-ticker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		ticker.shutdownNow();
+	}
+
+	/**
+	 * Pré-réserver des créneaux. La disponibilité doit avoir été vérifiée par
+	 * l'appelant.
+	 *
+	 * @param roomId   l'identifiant de la salle
+	 * @param clientId l'identifiant de l'utilisateur
+	 * @param slots    les créneaux à bloquer
+	 * @return la pré-réservation créée
+	 */
+	public Hold create(int roomId, int clientId, Collection<TimeSlot> slots) {
+		List<Interval> intervals = new ArrayList<>();
+		for (TimeSlot slot : slots) {
+			intervals.add(new Interval(slot.getStart(), slot.getEnd()));
+		}
+		long deadline = System.currentTimeMillis() + ttl * 1000;
+		Hold hold = new Hold(UUID.randomUUID().toString(), roomId, clientId, intervals,
+				LocalDateTime.ofInstant(Instant.ofEpochMilli(deadline), ZoneId.systemDefault()));
+		holdsByRoom.compute(roomId, (id, roomHolds) -> {
+			Set<Hold> result = roomHolds == null ? ConcurrentHashMap.newKeySet() : roomHolds;
+			result.add(hold);
+			return result;
+		});
+		synchronized (wheel) {
+			holds.put(hold.getId(), wheel.schedule(hold, deadline));
+		}
+		return hold;
+	}
+
+	/**
+	 * Vérifier si une autre pré-réservation bloque un créneau
+	 *
+	 * @param roomId  l'identifiant de la salle
+	 * @param start   le début du créneau
+	 * @param end     la fin du créneau
+	 * @param ignored l'identifiant de la pré-réservation du demandeur, dont
+	 *                l'appelant a vérifié qu'elle lui appartient, ou null
+	 * @return true si le créneau est bloqué ou false sinon
+	 */
+	public boolean isHeld(int roomId, LocalDateTime start, LocalDateTime end, String ignored) {
+		Set<Hold> roomHolds = holdsByRoom.get(roomId);
+		if (roomHolds == null)
+			return false;
+		for (Hold hold : roomHolds) {
+			if (hold.getId().equals(ignored))
+				continue;
+			for (Interval interval : hold.getSlots()) {
+				if (interval.getStart().isBefore(end) && start.isBefore(interval.getEnd()))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Obtenir les intervalles bloqués par les pré-réservations en cours d'une
+	 * salle
+	 *
+	 * @param roomId l'identifiant de la salle
+	 * @return les intervalles, dans un ordre quelconque
+	 */
+	public List<Interval> heldIntervals(int roomId) {
+		List<Interval> intervals = new ArrayList<>();
+		Set<Hold> roomHolds = holdsByRoom.get(roomId);
+		if (roomHolds != null) {
+			for (Hold hold : roomHolds) {
+				intervals.addAll(hold.getSlots());
+			}
+		}
+		return intervals;
+	}
+
+	/**
+	 * Obtenir les salles dont une pré-réservation en cours chevauche une période
+	 *
+	 * @param start le début de la période
+	 * @param end   la fin de la période
+	 * @return les identifiants des salles
+	 */
+	public Set<Integer> heldRooms(LocalDateTime start, LocalDateTime end) {
+		Set<Integer> rooms = new HashSet<>();
+		for (Map.Entry<Integer, Set<Hold>> entry : holdsByRoom.entrySet()) {
+			if (isHeld(entry.getKey(), start, end, null))
+				rooms.add(entry.getKey());
+		}
+		return rooms;
+	}
+
+	/**
+	 * Rechercher une pré-réservation en cours
+	 *
+	 * @param id l'identifiant de la pré-réservation
+	 * @return la pré-réservation ou null si elle est introuvable ou expirée
+	 */
+	public Hold find(String id) {
+		TimingWheel.Timeout<Hold> timeout = holds.get(id);
+		return timeout == null ? null : timeout.getItem();
+	}
+
+	/**
+	 * Libérer une pré-réservation
+	 *
+	 * @param id l'identifiant de la pré-réservation
+	 */
+	public void release(String id) {
+		TimingWheel.Timeout<Hold> timeout = holds.remove(id);
+		if (timeout != null) {
+			synchronized (wheel) {
+				timeout.cancel();
+			}
+			remove(timeout.getItem());
+		}
+	}
+
+	private void tick() {
+		synchronized (wheel) {
+			wheel.advance(System.currentTimeMillis(), hold -> {
+				holds.remove(hold.getId());
+				remove(hold);
+			});
+		}
+	}
+
+	private void remove(Hold hold) {
+		holdsByRoom.computeIfPresent(hold.getRoomId(), (id, roomHolds) -> {
+			roomHolds.remove(hold);
+			return roomHolds.isEmpty() ? null : roomHolds;
+		});
+	}
+}
@@ -0,0 +1,99 @@
+package project.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Stockage des fichiers sur le disque local, sous blob-store.root. Ce
+ * répertoire contient le seul exemplaire des photos : il doit être renseigné
+ * explicitement, hors d'un répertoire temporaire, et l'application ne démarre
+ * pas sans lui. Le fichier
+ * d'empreinte abcdef... est rangé dans ab/cd/abcdef... pour limiter le nombre
+ * d'entrées par répertoire.
+ *
+ * Le contenu est d'abord écrit dans un fichier temporaire du même répertoire
+ * racine tout en calculant son empreinte, puis renommé : un fichier visible est
+ * toujours complet, et deux envois simultanés du même contenu aboutissent au
+ * même fichier.
+ */
+@Service
+public class LocalBlobStore implements BlobStore {
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	@Value("${blob-store.root}")
+	private String root;
+
+	@PostConstruct
+	public void checkRoot() {
+		if (root == null || root.isBlank())
+			throw new IllegalStateException("blob-store.root doit être renseigné");
+	}
+
+	@Override
+	public String put(InputStream content) throws IOException {
+		Path directory = Paths.get(root);
+		Files.createDirectories(directory);
+		Path temp = Files.createTempFile(directory, "upload", ".tmp");
+		try {
+			MessageDigest digest = sha256();
+			try (InputStream in = new DigestInputStream(content, digest)) {
+				Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+			}
+			String hash = hex(digest.digest());
+			Path target = path(hash);
+			if (!Files.exists(target)) {
+				Files.createDirectories(target.getParent());
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+			}
+			return hash;
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	@Override
+	public Optional<Resource> get(String hash) {
+		if (hash == null || !hash.matches("[0-9a-f]{64}"))
+			return Optional.empty();
+		Path file = path(hash);
+		return Files.isRegularFile(file) ? Optional.of(new FileSystemResource(file)) : Optional.empty();
+	}
+
+	private Path path(String hash) {
+		return Paths.get(root, hash.substring(0, 2), hash.substring(2, 4), hash);
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// Algorithme requis sur toute JVM
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String hex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+			chars[2 * i + 1] = HEX[bytes[i] & 0xF];
+		}
+		return new String(chars);
+	}
+}
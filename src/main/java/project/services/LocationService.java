@@ -0,0 +1,155 @@
+package project.services;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import project.models.Cluster;
+import project.models.entities.Address;
+import project.models.entities.Room;
+import project.repositories.RoomRepository;
+import project.utils.ClusterIndex;
+import project.utils.SpatialIndex;
+import project.utils.TransactionUtils;
+
+/**
+ * Index en mémoire de la position des salles pour la recherche de proximité et
+ * le regroupement des marqueurs de la carte.
+ *
+ * Les index sont chargés à la première recherche puis tenus à jour à chaque
+ * création, modification et suppression de salle, après le commit de la
+ * transaction en cours.
+ */
+@Service
+public class LocationService {
+
+	// ~5,5 km de latitude par case
+	private static final double CELL_DEGREES = 0.05;
+
+	private static final int MIN_ZOOM = 3;
+
+	private static final int MAX_ZOOM = 16;
+
+	// Cases de 64 pixels sur des tuiles de 256 pixels
+	private static final int CELLS_PER_TILE = 4;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	private volatile Indexes indexes;
+
+	private static class Indexes {
+
+		private final SpatialIndex spatial = new SpatialIndex(CELL_DEGREES);
+
+		private final ClusterIndex clusters = new ClusterIndex(MIN_ZOOM, MAX_ZOOM, CELLS_PER_TILE);
+
+		private synchronized void put(int id, double lat, double lon, double price) {
+			spatial.put(id, lat, lon);
+			clusters.put(id, lat, lon, price);
+		}
+
+		private synchronized void remove(int id) {
+			spatial.remove(id);
+			clusters.remove(id);
+		}
+	}
+
+	/**
+	 * Rechercher les salles les plus proches d'un point
+	 *
+	 * @param lat      la latitude
+	 * @param lon      la longitude
+	 * @param radiusKm le rayon de recherche en kilomètres
+	 * @param k        le nombre maximum de salles
+	 * @return les identifiants des salles triés par distance croissante
+	 */
+	public List<Integer> nearest(double lat, double lon, double radiusKm, int k) {
+		return indexes().spatial.nearest(lat, lon, radiusKm, k);
+	}
+
+	/**
+	 * Regrouper les salles d'une zone de la carte
+	 *
+	 * @param minLat la latitude sud
+	 * @param minLon la longitude ouest
+	 * @param maxLat la latitude nord
+	 * @param maxLon la longitude est
+	 * @param zoom   le niveau de zoom de la carte
+	 * @return un regroupement par case non vide
+	 */
+	public List<Cluster> clusters(double minLat, double minLon, double maxLat, double maxLon, int zoom) {
+		return indexes().clusters.clusters(minLat, minLon, maxLat, maxLon, zoom);
+	}
+
+	/**
+	 * Ajouter ou déplacer une salle enregistrée. Si une transaction est en cours,
+	 * l'index n'est modifié qu'après son commit : une annulation n'y laisse pas
+	 * une position jamais enregistrée.
+	 *
+	 * @param room la salle
+	 */
+	public void register(Room room) {
+		int id = room.getId();
+		Address address = room.getAddress();
+		if (address == null) {
+			TransactionUtils.afterCommit(() -> remove(id));
+			return;
+		}
+		double lat = address.getLatitude();
+		double lon = address.getLongitude();
+		double price = room.getPrice();
+		TransactionUtils.afterCommit(() -> {
+			Indexes current = loaded();
+			if (current != null)
+				current.put(id, lat, lon, price);
+		});
+	}
+
+	/**
+	 * Retirer une salle supprimée, après le commit de la transaction en cours
+	 *
+	 * @param roomId l'identifiant de la salle
+	 */
+	public void evict(int roomId) {
+		TransactionUtils.afterCommit(() -> remove(roomId));
+	}
+
+	private void remove(int roomId) {
+		Indexes current = loaded();
+		if (current != null)
+			current.remove(roomId);
+	}
+
+	/**
+	 * Obtenir les index s'ils sont chargés, en attendant la fin d'un chargement
+	 * en cours pour ne pas perdre une modification
+	 */
+	private Indexes loaded() {
+		Indexes current = indexes;
+		if (current == null) {
+			synchronized (this) {
+				current = indexes;
+			}
+		}
+		return current;
+	}
+
+	private Indexes indexes() {
+		Indexes current = indexes;
+		if (current == null) {
+			synchronized (this) {
+				current = indexes;
+				if (current == null) {
+					current = new Indexes();
+					for (Object[] row : roomRepository.findAllLocations()) {
+						current.put((Integer) row[0], (Double) row[1], (Double) row[2], (Double) row[3]);
+					}
+					indexes = current;
+				}
+			}
+		}
+		return current;
+	}
+}
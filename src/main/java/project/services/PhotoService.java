@@ -1,11 +1,24 @@
 package project.services;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import project.exceptions.BadRequestException;
 import project.exceptions.ForbiddenException;
 import project.exceptions.InternalException;
 import project.exceptions.PhotoNotFoundException;
@@ -17,30 +30,53 @@ import project.repositories.PhotoRepository;
 @Service
 public class PhotoService {
 
+	// Colonne des fichiers avant leur déplacement dans BlobStore
+	private static final String LEGACY_COLUMN = "file";
+
+	// Types servis tels quels : un autre type, comme text/html ou image/svg+xml,
+	// serait interprété par le navigateur
+	private static final Set<MediaType> IMAGE_TYPES = Set.of(MediaType.IMAGE_JPEG, MediaType.IMAGE_PNG,
+			MediaType.IMAGE_GIF, MediaType.valueOf("image/webp"));
+
 	@Autowired
 	PhotoRepository photoRepository;
 
 	@Autowired
 	RoomService roomService;
 
+	@Autowired
+	BlobStore blobStore;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
 	/**
-	 * Enregister les photos d'une salle
-	 * 
+	 * Enregister les photos d'une salle. Seules l'empreinte et les métadonnées
+	 * sont conservées en base, le fichier étant écrit dans BlobStore.
+	 *
 	 * @param files  le fichiers à enregistrer
 	 * @param roomId l'identifiant de la salle concernée
 	 * @param user   l'utilisateur authentifié
-	 * @throws ForbiddenException si l'utilisateur n'est pas le propriétaire
-	 * @throws InternalException  si une photo n'a pas pu être enregistrée
+	 * @throws ForbiddenException  si l'utilisateur n'est pas le propriétaire
+	 * @throws BadRequestException si un fichier n'est pas une image JPEG, PNG,
+	 *                             GIF ou WebP
+	 * @throws InternalException   si une photo n'a pas pu être enregistrée
 	 */
 	public void create(MultipartFile[] files, int roomId, User user){
 		Room room = roomService.findById(roomId);
 		if (room.getOwner().getId() != user.getId())
 			throw new ForbiddenException();
 		for (MultipartFile file : files) {
-			try {
+			if (imageType(file.getContentType()).isEmpty())
+				throw new BadRequestException("Type de fichier non autorisé");
+		}
+		for (MultipartFile file : files) {
+			try (InputStream content = file.getInputStream()) {
 				Photo photo = new Photo();
 				photo.setRoom(room);
-				photo.setFile(file.getBytes());
+				photo.setHash(blobStore.put(content));
+				photo.setContentType(imageType(file.getContentType()).get().toString());
+				photo.setSize(file.getSize());
 				photoRepository.save(photo);
 			} catch (IOException e) {
 				throw new InternalException("Impossible d'enregistrer les photos");
@@ -48,15 +84,91 @@ public class PhotoService {
 		}
 	}
 
+	/**
+	 * Lire un type de fichier, sans ses paramètres
+	 *
+	 * @param contentType le type déclaré, éventuellement null
+	 * @return le type s'il s'agit d'une image autorisée, vide sinon
+	 */
+	public static Optional<MediaType> imageType(String contentType){
+		if (contentType == null)
+			return Optional.empty();
+		try {
+			MediaType type = MediaType.parseMediaType(contentType);
+			MediaType image = new MediaType(type.getType(), type.getSubtype());
+			return IMAGE_TYPES.contains(image) ? Optional.of(image) : Optional.empty();
+		} catch (InvalidMediaTypeException e) {
+			return Optional.empty();
+		}
+	}
+
 	/**
 	 * Chercher une photo par son id
-	 * 
+	 *
 	 * @param id l'identifiant de la photo recherchée
-	 * @return le fichier photo sous forme de byte[]
+	 * @return la photo, sans son fichier
 	 * @throws PhotoNotFoundException si la photo est introuvable
 	 */
-	public byte[] findById(int id){
-		Photo photo = photoRepository.findById(id).orElseThrow(PhotoNotFoundException::new);
-		return photo.getFile();
+	public Photo findById(int id){
+		return photoRepository.findById(id).orElseThrow(PhotoNotFoundException::new);
+	}
+
+	/**
+	 * Ouvrir le fichier d'une photo
+	 *
+	 * @param photo la photo
+	 * @return le fichier, lu à la demande
+	 * @throws PhotoNotFoundException si le fichier est introuvable
+	 */
+	public Resource load(Photo photo){
+		return blobStore.get(photo.getHash()).orElseThrow(PhotoNotFoundException::new);
+	}
+
+	/**
+	 * Déplacer dans BlobStore les fichiers encore enregistrés dans la colonne
+	 * file de la table photo, une photo à la fois pour ne jamais charger plus
+	 * d'un fichier en mémoire. Chaque photo déplacée est validée séparément : la
+	 * migration peut être interrompue puis relancée.
+	 *
+	 * @return le nombre de photos déplacées
+	 * @throws InternalException si un fichier n'a pas pu être enregistré
+	 */
+	public int migrateBlobs(){
+		if (!hasLegacyColumn())
+			return 0;
+		List<Integer> ids = jdbcTemplate.queryForList(
+				"SELECT id FROM photo WHERE hash IS NULL AND " + LEGACY_COLUMN + " IS NOT NULL", Integer.class);
+		int migrated = 0;
+		for (int id : ids) {
+			byte[] file = jdbcTemplate.queryForObject("SELECT " + LEGACY_COLUMN + " FROM photo WHERE id = ?",
+					(rs, rowNum) -> rs.getBytes(1), id);
+			if (file == null)
+				continue;
+			try {
+				String hash = blobStore.put(new ByteArrayInputStream(file));
+				migrated += jdbcTemplate.update(
+						"UPDATE photo SET hash = ?, size = ?, " + LEGACY_COLUMN + " = NULL WHERE id = ? AND hash IS NULL",
+						hash, file.length, id);
+			} catch (IOException e) {
+				throw new InternalException("Impossible de déplacer les photos");
+			}
+		}
+		return migrated;
+	}
+
+	/**
+	 * Indiquer si la table photo a encore sa colonne file, absente des schémas
+	 * créés après le passage à BlobStore
+	 */
+	private boolean hasLegacyColumn(){
+		return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+			DatabaseMetaData metaData = connection.getMetaData();
+			boolean upperCase = metaData.storesUpperCaseIdentifiers();
+			String table = upperCase ? "PHOTO" : "photo";
+			String column = upperCase ? LEGACY_COLUMN.toUpperCase() : LEGACY_COLUMN;
+			try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, table, column)) {
+				return columns.next();
+			}
+		});
 	}
 }
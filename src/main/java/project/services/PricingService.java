@@ -0,0 +1,67 @@
+package project.services;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import project.models.RoomBookingInfo;
+import project.models.entities.TimeSlot;
+import project.repositories.RoomRepository;
+import project.utils.DateUtils;
+import project.utils.PriceTable;
+import project.utils.TransactionUtils;
+
+/**
+ * Calcul du prix des réservations à partir des grilles tarifaires compilées de
+ * chaque salle. Tous les calculs sont faits en centimes.
+ */
+@Service
+public class PricingService {
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Value("${COMMISSION}")
+	private double COMMISSION;
+
+	@Value("${TVA}")
+	private double TVA;
+
+	private final Map<Integer, PriceTable> tables = new ConcurrentHashMap<>();
+
+	/**
+	 * Calculer le prix TTC, commission comprise, d'un ensemble de créneaux
+	 *
+	 * @param room  les informations de la salle réservée
+	 * @param slots les créneaux de la réservation, de durées quelconques
+	 * @return le prix en centimes, arrondi aux 10 centimes inférieurs
+	 */
+	public long totalCents(RoomBookingInfo room, Collection<TimeSlot> slots) {
+		PriceTable table = tables.computeIfAbsent(room.getId(),
+				id -> PriceTable.compile(room.getPrice(), roomRepository.findPricingRulesById(id)));
+		long centSeconds = 0;
+		for (TimeSlot slot : slots) {
+			centSeconds += table.centSeconds(DateUtils.toEpochSecond(slot.getStart()),
+					DateUtils.toEpochSecond(slot.getEnd()));
+		}
+		long commission = Math.round(COMMISSION * 100);
+		long tva = Math.round(TVA * 100);
+		long cents = centSeconds * (10000 + commission) / 10000 * (10000 + tva) / 10000 / 3600;
+		return cents - cents % 10;
+	}
+
+	/**
+	 * Oublier la grille tarifaire d'une salle après sa modification. Si une
+	 * transaction est en cours, la grille est oubliée après son commit : un devis
+	 * calculé entre-temps ne peut pas remettre en cache les anciennes règles.
+	 *
+	 * @param roomId l'identifiant de la salle
+	 */
+	public void evict(int roomId) {
+		TransactionUtils.afterCommit(() -> tables.remove(roomId));
+	}
+}
@@ -0,0 +1,101 @@
+package project.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import project.exceptions.InternalException;
+import project.models.Quote;
+import project.models.entities.Booking;
+import project.models.entities.TimeSlot;
+import project.utils.DateUtils;
+
+/**
+ * Signature et vérification des devis de réservation.
+ *
+ * Le jeton a la forme expiration.signature où la signature est un HMAC-SHA256
+ * de l'expiration, de la salle, du prix et des créneaux.
+ */
+@Service
+public class QuoteService {
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	@Value("${quote.secret:${jwt.secret}}")
+	private String secret;
+
+	@Value("${quote.ttl:900}")
+	private long ttl;
+
+	/**
+	 * Signer le devis d'une réservation dont le prix est calculé
+	 *
+	 * @param booking la réservation contenant la salle, les créneaux et le prix
+	 * @return un objet de type Quote contenant le jeton signé
+	 */
+	public Quote sign(Booking booking) {
+		long expiration = Instant.now().getEpochSecond() + ttl;
+		String signature = Base64.getUrlEncoder().withoutPadding().encodeToString(hmac(expiration, booking));
+		LocalDateTime expiresOn = LocalDateTime.ofInstant(Instant.ofEpochSecond(expiration), ZoneId.systemDefault());
+		return new Quote(booking.getPrice(), expiration + "." + signature, expiresOn);
+	}
+
+	/**
+	 * Vérifier le jeton de devis d'une réservation
+	 *
+	 * @param booking la réservation contenant le jeton
+	 * @return true si le jeton correspond à la réservation et n'a pas expiré ou
+	 *         false sinon
+	 */
+	public boolean verify(Booking booking) {
+		String token = booking.getQuote();
+		int separator = token == null ? -1 : token.indexOf('.');
+		if (separator < 0)
+			return false;
+		try {
+			long expiration = Long.parseLong(token.substring(0, separator));
+			if (expiration < Instant.now().getEpochSecond())
+				return false;
+			byte[] signature = Base64.getUrlDecoder().decode(token.substring(separator + 1));
+			return MessageDigest.isEqual(hmac(expiration, booking), signature);
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	private byte[] hmac(long expiration, Booking booking) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+			return mac.doFinal(payload(expiration, booking).getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException e) {
+			throw new InternalException("Impossible de signer le devis");
+		}
+	}
+
+	private static String payload(long expiration, Booking booking) {
+		List<long[]> slots = new ArrayList<>();
+		for (TimeSlot slot : booking.getSlots()) {
+			slots.add(new long[] { DateUtils.toEpochSecond(slot.getStart()), DateUtils.toEpochSecond(slot.getEnd()) });
+		}
+		slots.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+		StringBuilder payload = new StringBuilder();
+		payload.append(expiration).append('|').append(booking.getRoom().getId()).append('|').append(booking.getPrice());
+		for (long[] slot : slots) {
+			payload.append('|').append(slot[0]).append('-').append(slot[1]);
+		}
+		return payload.toString();
+	}
+}
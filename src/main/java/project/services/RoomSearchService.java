@@ -0,0 +1,103 @@
+package project.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import project.repositories.RoomRepository;
+import project.utils.TransactionUtils;
+import project.utils.TrigramIndex;
+
+/**
+ * Recherche plein texte des salles sur un index de trigrammes en mémoire du
+ * nom, du type, de la ville, des types d'événement et des équipements.
+ *
+ * L'index est construit à la première recherche. Les salles modifiées sont
+ * signalées par RoomListener et réindexées à la recherche suivante.
+ */
+@Service
+public class RoomSearchService {
+
+	// Part minimale des trigrammes de la requête présents dans la salle
+	private static final double MIN_SIMILARITY = 0.6;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	private volatile TrigramIndex index;
+
+	private final Set<Integer> stale = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Rechercher les salles proches d'un texte
+	 *
+	 * @param query le texte recherché
+	 * @return les identifiants des salles classés par pertinence
+	 */
+	public List<Integer> search(String query) {
+		TrigramIndex current = index();
+		Iterator<Integer> iterator = stale.iterator();
+		while (iterator.hasNext()) {
+			int id = iterator.next();
+			iterator.remove();
+			Map<Integer, List<String>> documents = toDocuments(roomRepository.findSearchFieldsById(id));
+			if (documents.isEmpty()) {
+				current.remove(id);
+			} else {
+				current.put(id, documents.get(id));
+			}
+		}
+		return current.search(query);
+	}
+
+	/**
+	 * Signaler une salle créée, modifiée ou supprimée, après validation de la
+	 * transaction en cours
+	 *
+	 * @param roomId l'identifiant de la salle
+	 */
+	public void markStale(int roomId) {
+		TransactionUtils.afterCommit(() -> stale.add(roomId));
+	}
+
+	private TrigramIndex index() {
+		TrigramIndex current = index;
+		if (current == null) {
+			synchronized (this) {
+				current = index;
+				if (current == null) {
+					current = new TrigramIndex(MIN_SIMILARITY);
+					for (Map.Entry<Integer, List<String>> document : toDocuments(roomRepository.findSearchFields())
+							.entrySet()) {
+						current.put(document.getKey(), document.getValue());
+					}
+					index = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Regrouper par salle les lignes id, nom, type, ville, type d'événement,
+	 * équipement
+	 */
+	private static Map<Integer, List<String>> toDocuments(List<Object[]> rows) {
+		Map<Integer, List<String>> documents = new HashMap<>();
+		for (Object[] row : rows) {
+			List<String> fields = documents.computeIfAbsent((Integer) row[0], id -> new ArrayList<>());
+			for (int i = 1; i < row.length; i++) {
+				if (row[i] != null && !fields.contains(row[i]))
+					fields.add((String) row[i]);
+			}
+		}
+		return documents;
+	}
+}
@@ -1,31 +1,81 @@
 package project.services;
 
-import java.time.format.TextStyle;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import project.exceptions.BadRequestException;
 import project.exceptions.ForbiddenException;
 import project.exceptions.RoomNotFoundException;
+import project.models.Cluster;
+import project.models.CursorPage;
+import project.models.Facets;
+import project.models.Interval;
+import project.models.RoomBookingInfo;
+import project.models.RoomSummary;
 import project.models.SearchRoomParams;
+import project.models.Suggestion;
 import project.models.entities.Room;
 import project.models.entities.RoomEquipment;
 import project.models.entities.User;
 import project.repositories.EquipmentRepository;
 import project.repositories.RoomRepository;
+import project.repositories.RoomSpecifications;
+import project.utils.CursorUtils;
 import project.utils.DateUtils;
+import project.utils.DayMask;
+import project.utils.FetchUtils;
 
 @Service
 public class RoomService {
 
+	private static final int MAX_AVAILABILITY_DAYS = 93;
+
+	private static final double DEFAULT_RADIUS_KM = 3;
+
+	private static final double MAX_RADIUS_KM = 50;
+
 	@Autowired
 	private RoomRepository roomRepository;
 
 	@Autowired
 	private EquipmentRepository equipmentRepository;
 
+	@Autowired
+	private AvailabilityService availabilityService;
+
+	@Autowired
+	private PricingService pricingService;
+
+	@Autowired
+	private LocationService locationService;
+
+	@Autowired
+	private RoomSearchService roomSearchService;
+
+	@Autowired
+	private SuggestService suggestService;
+
+	@Autowired
+	private FacetService facetService;
+
+	@Autowired
+	private SearchCacheService searchCacheService;
+
+	@Autowired
+	private HoldService holdService;
+
 	/**
 	 * Enregistrer une salle
 	 * 
@@ -45,46 +95,232 @@ public class RoomService {
 		User u = new User();
 		u.setId(user.getId());
 		room.setOwner(u);
-		return roomRepository.save(room);
+		Room saved = roomRepository.save(room);
+		locationService.register(saved);
+		searchCacheService.invalidate(saved);
+		return saved;
 	}
 
 	/**
-	 * Obtenir les salles par critère
+	 * Obtenir une page de salles correspondant à tous les critères renseignés.
+	 * Avec une latitude et une longitude, renvoie les salles les plus proches
+	 * dans le rayon demandé, triées par distance ; le curseur est alors la
+	 * position dans ce classement.
 	 * 
 	 * @param params l'objet contenant les critères de recherche
-	 * @return la liste des salles correspondant aux critères
+	 * @param after  le curseur de la page précédente, null pour la première
+	 * @param limit  le nombre de salles par page, borné à 100
+	 * @return la page de salles correspondant aux critères
 	 * @throws RoomNotFoundException si aucune salle n'est trouvée
+	 * @throws BadRequestException   si la période, le rayon ou le curseur est
+	 *                               invalide
 	 */
-	public List<Room> findAll(SearchRoomParams params){
-		List<Room> rooms;
-		if (params.getLat() != null && params.getLon() != null) {
-			rooms = roomRepository.findByCoordinates(params.getLat(), params.getLon());
-		} else if (params.getType() != null) {
-			rooms = roomRepository.findByTypeId(params.getType());
-		} else if (params.getEquipment() != null) {
-			rooms = roomRepository.findByEquipmentsEquipmentId(params.getEquipment());
-		} else if (params.getEvent() != null) {
-			rooms = roomRepository.findByEventTypesId(params.getEvent());
-		} else if (params.getCity() != null && params.getZipCode() != null) {
-			if (params.getDate() != null) {
-				String day = DateUtils.parseDate(params.getDate()).getDayOfWeek().getDisplayName(TextStyle.FULL,
-						Locale.FRANCE);
-				rooms = roomRepository.findByAvailableDaysAndAddressCityAndAddressZipCode(day, params.getCity(),
-						params.getZipCode());
-
-			} else {
-				rooms = roomRepository.findByAddressCityAndAddressZipCode(params.getCity(), params.getZipCode());
+	public CursorPage<RoomSummary> findAll(SearchRoomParams params, String after, int limit){
+		if (params.getLat() != null && params.getLon() != null)
+			return findNearest(params, after, limit);
+		Specification<Room> spec = buildSpecification(params);
+		if (!searchCacheService.isCacheable(params))
+			return findPage(spec, after, limit);
+		int cursor = CursorUtils.decode(after);
+		int max = CursorUtils.limit(limit);
+		List<Integer> ids = searchCacheService.find(params,
+				() -> roomRepository.findIds(spec, SearchCacheService.MAX_IDS + 1));
+		int from = Collections.binarySearch(ids, cursor);
+		from = from >= 0 ? from + 1 : -from - 1;
+		// Au-delà des identifiants conservés, la page est lue en base
+		if (ids.size() > SearchCacheService.MAX_IDS && from + max + 1 > ids.size())
+			return findPage(spec, after, limit);
+		if (from >= ids.size() && cursor == 0)
+			throw new RoomNotFoundException();
+		List<RoomSummary> rooms = findSummariesInOrder(
+				ids.subList(Math.min(from, ids.size()), Math.min(from + max + 1, ids.size())));
+		return CursorUtils.page(rooms, max, RoomSummary::getId);
+	}
+	
+	/**
+	 * Parcourir les salles du rayon par distance croissante, par lots filtrés en
+	 * base selon les autres critères, jusqu'à en avoir assez. Seules les salles
+	 * nécessaires à la page sont demandées à l'index, ce nombre étant doublé
+	 * tant que les critères en écartent trop.
+	 */
+	private CursorPage<RoomSummary> findNearest(SearchRoomParams params, String after, int limit){
+		double radius = params.getRadiusKm() == null ? DEFAULT_RADIUS_KM : params.getRadiusKm();
+		if (!(radius > 0 && radius <= MAX_RADIUS_KM))
+			throw new BadRequestException("Rayon invalide");
+		int position = CursorUtils.decode(after);
+		int max = CursorUtils.limit(limit);
+		Specification<Room> spec = buildSpecification(params);
+		int k = position + max + 1;
+		List<Integer> ids = locationService.nearest(params.getLat(), params.getLon(), radius, k);
+		List<RoomSummary> rooms = new ArrayList<>();
+		while (true) {
+			while (position < ids.size() && rooms.size() < max) {
+				List<Integer> batch = ids.subList(position, Math.min(ids.size(), position + max));
+				Map<Integer, RoomSummary> found = new HashMap<>();
+				for (RoomSummary room : roomRepository.findSummariesAfter(spec.and(RoomSpecifications.idIn(batch)), 0,
+						batch.size())) {
+					found.put(room.getId(), room);
+				}
+				// Seules les salles examinées avant que la page soit pleine sont consommées
+				for (int i = 0; i < batch.size() && rooms.size() < max; i++, position++) {
+					RoomSummary room = found.get(batch.get(i));
+					if (room != null)
+						rooms.add(room);
+				}
 			}
-		} else {
-			rooms = roomRepository.findAll();
+			if (rooms.size() == max || ids.size() < k)
+				break;
+			k = k > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : k * 2;
+			ids = locationService.nearest(params.getLat(), params.getLon(), radius, k);
 		}
-		if (rooms.isEmpty())
+		if (rooms.isEmpty() && after == null)
 			throw new RoomNotFoundException();
+		boolean more = position < ids.size() || ids.size() == k;
+		return new CursorPage<>(rooms, more ? CursorUtils.encode(position) : null);
+	}
+	
+	/**
+	 * Combiner les critères renseignés, les plus sélectifs en premier : égalités
+	 * sur des colonnes indexées, puis intervalles, puis sous-requêtes sur les
+	 * collections et enfin l'anti-jointure sur les réservations, la plus coûteuse
+	 * 
+	 * @param params l'objet contenant les critères de recherche
+	 * @return la spécification, vide si aucun critère n'est renseigné
+	 * @throws BadRequestException si la période est invalide
+	 */
+	private Specification<Room> buildSpecification(SearchRoomParams params){
+		List<Specification<Room>> specs = new ArrayList<>();
+		if (params.getType() != null)
+			specs.add(RoomSpecifications.hasType(params.getType()));
+		if (params.getZipCode() != null)
+			specs.add(RoomSpecifications.hasZipCode(params.getZipCode()));
+		if (params.getCity() != null)
+			specs.add(RoomSpecifications.inCity(params.getCity()));
+		if (params.getMinPrice() != null || params.getMaxPrice() != null)
+			specs.add(RoomSpecifications.between("price", params.getMinPrice(), params.getMaxPrice()));
+		if (params.getMinCapacity() != null || params.getMaxCapacity() != null)
+			specs.add(RoomSpecifications.between("maxCapacity", params.getMinCapacity(), params.getMaxCapacity()));
+		if (params.getMinSize() != null || params.getMaxSize() != null)
+			specs.add(RoomSpecifications.between("size", params.getMinSize(), params.getMaxSize()));
+		if (params.getEquipment() != null)
+			specs.add(RoomSpecifications.hasEquipment(params.getEquipment()));
+		if (params.getEvent() != null)
+			specs.add(RoomSpecifications.hasEventType(params.getEvent()));
+		if (params.getStart() != null && params.getEnd() != null) {
+			LocalDateTime start = DateUtils.parseDateTime(params.getStart());
+			LocalDateTime end = DateUtils.parseDateTime(params.getEnd());
+			if (!end.isAfter(start))
+				throw new BadRequestException("Période invalide");
+			specs.add(RoomSpecifications.openOn(DayMask.between(start, end)));
+			specs.add(RoomSpecifications.freeBetween(start, end));
+			Set<Integer> held = holdService.heldRooms(start, end);
+			if (!held.isEmpty())
+				specs.add(RoomSpecifications.idNotIn(held));
+		} else if (params.getDate() != null) {
+			LocalDate date = DateUtils.parseDate(params.getDate());
+			specs.add(RoomSpecifications.openOn(DayMask.of(date.getDayOfWeek())));
+		}
+		Specification<Room> result = Specification.where(null);
+		for (Specification<Room> spec : specs) {
+			result = result.and(spec);
+		}
+		return result;
+	}
+	
+	/**
+	 * Compter les salles par valeur de facette
+	 * 
+	 * @param filters la valeur retenue pour les facettes type, equipment, event,
+	 *                volume et city, null si non filtrée
+	 * @return le nombre de salles par valeur et le nombre total de salles
+	 */
+	public Facets findFacets(Map<String, String> filters){
+		return facetService.count(filters);
+	}
+	
+	/**
+	 * Proposer des termes de recherche pendant la saisie
+	 * 
+	 * @param prefix le début du terme
+	 * @param limit  le nombre maximum de propositions
+	 * @return les propositions par nombre de salles décroissant
+	 */
+	public List<Suggestion> suggest(String prefix, int limit){
+		return suggestService.suggest(prefix, limit);
+	}
+	
+	/**
+	 * Regrouper les salles d'une zone de la carte
+	 * 
+	 * @param bbox la zone au format ouest,sud,est,nord en degrés
+	 * @param zoom le niveau de zoom de la carte
+	 * @return un regroupement par case non vide de la zone
+	 * @throws BadRequestException si la zone est invalide
+	 */
+	public List<Cluster> findClusters(String bbox, int zoom){
+		String[] bounds = bbox.split(",");
+		if (bounds.length != 4)
+			throw new BadRequestException("Zone invalide");
+		double[] values = new double[4];
+		try {
+			for (int i = 0; i < 4; i++) {
+				values[i] = Double.parseDouble(bounds[i].trim());
+			}
+		} catch (NumberFormatException e) {
+			throw new BadRequestException("Zone invalide");
+		}
+		double minLon = values[0], minLat = values[1], maxLon = values[2], maxLat = values[3];
+		if (!(minLat >= -90 && maxLat <= 90 && minLat <= maxLat && minLon >= -180 && minLon <= 180 && maxLon >= -180
+				&& maxLon <= 180))
+			throw new BadRequestException("Zone invalide");
+		return locationService.clusters(minLat, minLon, maxLat, maxLon, zoom);
+	}
+	
+	/**
+	 * Rechercher les salles par nom, type, ville, type d'événement ou équipement,
+	 * classées par pertinence et tolérant les fautes de frappe
+	 * 
+	 * @param query le texte recherché
+	 * @param after le curseur de la page précédente, null pour la première
+	 * @param limit le nombre de salles par page, borné à 100
+	 * @return la page de salles correspondantes, vide si aucune salle n'est
+	 *         trouvée
+	 */
+	public CursorPage<RoomSummary> search(String query, String after, int limit){
+		int offset = CursorUtils.decode(after);
+		int max = CursorUtils.limit(limit);
+		List<Integer> ids = roomSearchService.search(query);
+		List<Integer> page = ids.subList(Math.min(offset, ids.size()), Math.min(offset + max, ids.size()));
+		List<RoomSummary> rooms = findSummariesInOrder(page);
+		return new CursorPage<>(rooms, offset + max < ids.size() ? CursorUtils.encode(offset + max) : null);
+	}
+	
+	/**
+	 * Lire le résumé de salles dans l'ordre des identifiants donnés, en ignorant
+	 * celles supprimées entre-temps
+	 */
+	private List<RoomSummary> findSummariesInOrder(List<Integer> ids){
+		Map<Integer, RoomSummary> found = new HashMap<>();
+		if (!ids.isEmpty()) {
+			for (RoomSummary room : roomRepository.findSummariesAfter(RoomSpecifications.idIn(ids), 0, ids.size())) {
+				found.put(room.getId(), room);
+			}
+		}
+		List<RoomSummary> rooms = new ArrayList<>();
+		for (Integer id : ids) {
+			if (found.containsKey(id))
+				rooms.add(found.get(id));
+		}
 		return rooms;
 	}
 	
-	public List<Room> search(String query){
-		return roomRepository.findDistinctRoomsByNameContainingOrTypeIdOrEventTypesIdAllIgnoreCase(query, query, query);
+	private CursorPage<RoomSummary> findPage(Specification<Room> spec, String after, int limit){
+		int cursor = CursorUtils.decode(after);
+		int max = CursorUtils.limit(limit);
+		List<RoomSummary> rooms = roomRepository.findSummariesAfter(spec, cursor, max + 1);
+		if (rooms.isEmpty() && cursor == 0)
+			throw new RoomNotFoundException();
+		return CursorUtils.page(rooms, max, RoomSummary::getId);
 	}
 	
 	public boolean exists(String name) {
@@ -97,24 +333,60 @@ public class RoomService {
 	 * @return la salle recherchée
 	 * @throws RoomNotFoundException si la salle est introuvable
 	 */
+	@Transactional(readOnly = true)
 	public Room findById(int id){
-		return roomRepository.findById(id).orElseThrow(RoomNotFoundException::new);
+		Room room = roomRepository.findDetailById(id).orElseThrow(RoomNotFoundException::new);
+		return FetchUtils.initialize(room);
 	}
 
 	
 	
+	/**
+	 * Obtenir le prix et les jours disponibles d'une salle sans charger l'entité
+	 * 
+	 * @param id l'identifiant de la salle
+	 * @return un objet de type RoomBookingInfo
+	 * @throws RoomNotFoundException si la salle est introuvable
+	 */
+	public RoomBookingInfo findBookingInfo(int id){
+		List<Object[]> rows = roomRepository.findBookingInfoById(id);
+		if (rows.isEmpty())
+			throw new RoomNotFoundException();
+		return new RoomBookingInfo(id, (Double) rows.get(0)[0], (Integer) rows.get(0)[1]);
+	}
+
+	/**
+	 * Obtenir les intervalles libres d'une salle, hors créneaux réservés ou
+	 * bloqués par une pré-réservation en cours
+	 * 
+	 * @param id   l'identifiant de la salle
+	 * @param from le premier jour au format dd/MM/yyyy
+	 * @param to   le dernier jour au format dd/MM/yyyy
+	 * @return la liste ordonnée des intervalles libres
+	 * @throws RoomNotFoundException si la salle est introuvable
+	 * @throws BadRequestException   si la période est invalide
+	 */
+	public List<Interval> findAvailability(int id, String from, String to){
+		LocalDate start = DateUtils.parseDate(from);
+		LocalDate end = DateUtils.parseDate(to);
+		if (end.isBefore(start) || ChronoUnit.DAYS.between(start, end) >= MAX_AVAILABILITY_DAYS)
+			throw new BadRequestException("Période invalide");
+		RoomBookingInfo room = findBookingInfo(id);
+		return availabilityService.findFreeIntervals(id, start, end, 
+				date -> DayMask.contains(room.getAvailableDays(), date.getDayOfWeek()));
+	}
+
 	/**
 	 * Obtenir les salles d'un utilisateur
 	 * 
-	 * @param id l'identifiant de l'utiliseur
-	 * @return la liste des salles de l'utilisateur
+	 * @param id    l'identifiant de l'utiliseur
+	 * @param after le curseur de la page précédente, null pour la première
+	 * @param limit le nombre de salles par page, borné à 100
+	 * @return la page de salles de l'utilisateur
 	 * @throws RoomNotFoundException si la liste est vide
 	 */
-	public List<Room> findByUserId(int id){
-		List<Room> rooms = this.roomRepository.findByOwnerId(id);
-		if (rooms.isEmpty())
-			throw new RoomNotFoundException();
-		return rooms;
+	public CursorPage<RoomSummary> findByUserId(int id, String after, int limit){
+		return findPage(RoomSpecifications.ownedBy(id), after, limit);
 	}
 
 	/**
@@ -125,10 +397,19 @@ public class RoomService {
 	 * @return la salle modifée
 	 * @throws ForbiddenException si l'utilisateur n'est pas le propriétaire
 	 */
+	@Transactional
 	public Room update(Room room, User user){
 		if (user == null || user.getId() != room.getOwner().getId())
 			throw new ForbiddenException();
-		return roomRepository.save(room);
+		Room saved = FetchUtils.initialize(roomRepository.save(room));
+		pricingService.evict(saved.getId());
+		locationService.register(saved);
+		// Une modification des seules collections ne déclenche pas @PostUpdate
+		roomSearchService.markStale(saved.getId());
+		suggestService.requestRebuild();
+		facetService.markStale(saved.getId());
+		searchCacheService.invalidate(saved);
+		return saved;
 	}
 
 	/**
@@ -144,6 +425,7 @@ public class RoomService {
 		if (room.getOwner().getId() != user.getId()) {
 			throw new ForbiddenException();
 		}
+		// Les index en mémoire sont mis à jour par RoomListener
 		roomRepository.deleteById(id);
 	}
 
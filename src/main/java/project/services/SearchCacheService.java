@@ -0,0 +1,94 @@
+package project.services;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import project.models.CacheStats;
+import project.models.SearchKey;
+import project.models.SearchRoomParams;
+import project.models.entities.Room;
+import project.utils.ResultCache;
+import project.utils.TransactionUtils;
+
+/**
+ * Cache des identifiants de salles correspondant à une recherche.
+ *
+ * Seuls les critères portant sur les salles elles-mêmes sont mis en cache :
+ * une recherche par période dépend aussi des réservations et une recherche par
+ * position est servie par LocationService. Une salle créée, modifiée ou
+ * supprimée n'invalide que les recherches qui la contenaient ou auxquelles
+ * elle peut désormais correspondre.
+ */
+@Service
+public class SearchCacheService {
+
+	// Nombre d'identifiants conservés par recherche, les pages suivantes sont lues en base
+	public static final int MAX_IDS = 1000;
+
+	@Value("${search-cache.ttl:60}")
+	private long ttl;
+
+	@Value("${search-cache.max-entries:1000}")
+	private int maxEntries;
+
+	private ResultCache<SearchKey, List<Integer>> cache;
+
+	@PostConstruct
+	public void init() {
+		cache = new ResultCache<>(ttl * 1000, maxEntries);
+	}
+
+	/**
+	 * Indiquer si une recherche peut être servie par le cache
+	 */
+	public boolean isCacheable(SearchRoomParams params) {
+		return params.getStart() == null && params.getEnd() == null && params.getLat() == null
+				&& params.getLon() == null;
+	}
+
+	/**
+	 * Obtenir les identifiants des salles d'une recherche
+	 *
+	 * @param params les critères de recherche
+	 * @param loader la lecture en base des MAX_IDS + 1 premiers identifiants
+	 *               par ordre croissant
+	 * @return les identifiants par ordre croissant, au plus MAX_IDS + 1
+	 */
+	public List<Integer> find(SearchRoomParams params, Supplier<List<Integer>> loader) {
+		return cache.get(new SearchKey(params), loader);
+	}
+
+	/**
+	 * Signaler une salle créée ou modifiée, après validation de la transaction
+	 * en cours
+	 *
+	 * @param room la salle dans son nouvel état
+	 */
+	public void invalidate(Room room) {
+		int id = room.getId();
+		TransactionUtils.afterCommit(() -> cache.invalidateIf((key, ids) -> contains(ids, id) || key.mayMatch(room)));
+	}
+
+	/**
+	 * Signaler une salle supprimée, après validation de la transaction en cours
+	 *
+	 * @param id l'identifiant de la salle
+	 */
+	public void invalidate(int id) {
+		TransactionUtils.afterCommit(() -> cache.invalidateIf((key, ids) -> contains(ids, id)));
+	}
+
+	public CacheStats stats() {
+		return new CacheStats(cache.hits(), cache.misses(), cache.size());
+	}
+
+	private static boolean contains(List<Integer> ids, int id) {
+		return Collections.binarySearch(ids, id) >= 0;
+	}
+}
@@ -0,0 +1,166 @@
+package project.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import project.models.Suggestion;
+import project.repositories.RoomRepository;
+import project.utils.PrefixTrie;
+import project.utils.TextUtils;
+import project.utils.TransactionUtils;
+
+/**
+ * Autocomplétion sur les noms de salles, villes, types, types d'événement et
+ * équipements.
+ *
+ * Le trie est immuable : il est reconstruit en tâche de fond après chaque
+ * modification de salle puis publié d'un coup, les recherches ne prennent donc
+ * jamais de verrou.
+ */
+@Slf4j
+@Service
+public class SuggestService {
+
+	public static final int MAX_SUGGESTIONS = 10;
+
+	// Nature des colonnes de RoomRepository.findSearchFields, après l'id
+	private static final String[] KINDS = { "room", "type", "city", "event", "equipment" };
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	private volatile Snapshot snapshot;
+
+	private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+	private final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "suggest-builder");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static class Snapshot {
+
+		private final PrefixTrie trie;
+
+		private final List<Suggestion> suggestions;
+
+		private Snapshot(PrefixTrie trie, List<Suggestion> suggestions) {
+			this.trie = trie;
+			this.suggestions = suggestions;
+		}
+	}
+
+	@PreDestroy
+	public void stop() {
+		builder.shutdownNow();
+	}
+
+	/**
+	 * Proposer les termes commençant par un préfixe, ou dont un mot commence par
+	 * ce préfixe
+	 *
+	 * @param prefix le préfixe saisi
+	 * @param limit  le nombre maximum de propositions, borné à 10
+	 * @return les propositions par poids décroissant
+	 */
+	public List<Suggestion> suggest(String prefix, int limit) {
+		Snapshot current = snapshot();
+		String key = TextUtils.fold(prefix).stripLeading();
+		List<Suggestion> result = new ArrayList<>();
+		if (key.isEmpty())
+			return result;
+		for (int entry : current.trie.lookup(key, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS))) {
+			result.add(current.suggestions.get(entry));
+		}
+		return result;
+	}
+
+	/**
+	 * Demander la reconstruction du trie après validation de la transaction en
+	 * cours. Les demandes rapprochées sont regroupées.
+	 */
+	public void requestRebuild() {
+		TransactionUtils.afterCommit(this::scheduleRebuild);
+	}
+
+	private void scheduleRebuild() {
+		if (rebuildScheduled.compareAndSet(false, true)) {
+			builder.execute(() -> {
+				// Une modification pendant la construction programme une nouvelle passe
+				rebuildScheduled.set(false);
+				try {
+					snapshot = build();
+				} catch (RuntimeException e) {
+					log.error("Reconstruction de l'autocomplétion impossible", e);
+				}
+			});
+		}
+	}
+
+	private Snapshot snapshot() {
+		Snapshot current = snapshot;
+		if (current == null) {
+			synchronized (this) {
+				current = snapshot;
+				if (current == null) {
+					current = build();
+					snapshot = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private Snapshot build() {
+		// Salles distinctes par terme, pour chaque nature
+		Map<String, Set<Integer>> rooms = new LinkedHashMap<>();
+		Map<String, String> texts = new HashMap<>();
+		for (Object[] row : roomRepository.findSearchFields()) {
+			for (int i = 1; i < row.length; i++) {
+				if (row[i] == null)
+					continue;
+				String text = (String) row[i];
+				String id = KINDS[i - 1] + ":" + TextUtils.fold(text);
+				texts.putIfAbsent(id, text);
+				rooms.computeIfAbsent(id, k -> new HashSet<>()).add((Integer) row[0]);
+			}
+		}
+		List<Suggestion> suggestions = new ArrayList<>();
+		List<List<String>> keys = new ArrayList<>();
+		for (Map.Entry<String, Set<Integer>> term : rooms.entrySet()) {
+			String id = term.getKey();
+			suggestions.add(new Suggestion(texts.get(id), id.substring(0, id.indexOf(':')), term.getValue().size()));
+			keys.add(keys(id.substring(id.indexOf(':') + 1)));
+		}
+		int[] weights = suggestions.stream().mapToInt(Suggestion::getWeight).toArray();
+		return new Snapshot(PrefixTrie.build(keys, weights, MAX_SUGGESTIONS), suggestions);
+	}
+
+	/**
+	 * Le terme entier et chacune de ses fins commençant par un mot
+	 */
+	private static List<String> keys(String folded) {
+		List<String> keys = new ArrayList<>();
+		keys.add(folded);
+		for (int i = 1; i < folded.length(); i++) {
+			if (!Character.isLetterOrDigit(folded.charAt(i - 1)) && Character.isLetterOrDigit(folded.charAt(i)))
+				keys.add(folded.substring(i));
+		}
+		return keys;
+	}
+}
@@ -8,6 +8,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import project.exceptions.BadCredentialsException;
 import project.exceptions.ConflictException;
@@ -16,7 +17,9 @@ import project.exceptions.ForbiddenException;
 import project.exceptions.UserNotFoundException;
 import project.models.entities.Room;
 import project.models.entities.User;
+import project.repositories.RoomRepository;
 import project.repositories.UserRepository;
+import project.utils.FetchUtils;
 
 @Service
 public class UserService implements UserDetailsService {
@@ -24,6 +27,9 @@ public class UserService implements UserDetailsService {
 	@Autowired
 	private UserRepository userRepository;
 
+	@Autowired
+	private RoomRepository roomRepository;
+
 	@Autowired
 	private PasswordEncoder passwordEncoder;
 	
@@ -75,10 +81,12 @@ public class UserService implements UserDetailsService {
 	 * @throws ForbiddenException    si l'id ne correspond pas à celui de
 	 *                               l'utilisateur
 	 */
+	@Transactional(readOnly = true)
 	public User findById(int id, User user){
 		if (user == null || user.getId() != id)
 			throw new ForbiddenException();
-		return userRepository.findById(id).orElseThrow(UserNotFoundException::new);
+		User dbUser = userRepository.findProfileById(id).orElseThrow(UserNotFoundException::new);
+		return FetchUtils.initialize(dbUser);
 	}
 
 	/**
@@ -116,6 +124,7 @@ public class UserService implements UserDetailsService {
 	 * @throws ForbiddenException si l'id de l'objet ne correspond pas à l'id de
 	 *                            l'utilisateur connecté
 	 */
+	@Transactional
 	public User update(User user, User loggedUser){
 		if (loggedUser == null || loggedUser.getId() != user.getId())
 			throw new ForbiddenException();
@@ -129,10 +138,11 @@ public class UserService implements UserDetailsService {
 			dbUser.setFirstname(user.getEmail());
 		if (!StringUtils.isBlank(user.getPassword()))
 			dbUser.setPassword(passwordEncoder.encode(user.getPassword()));
-		return userRepository.save(dbUser);
+		return FetchUtils.initialize(userRepository.save(dbUser));
 
 	}
 
+	@Transactional
 	public User addRoomToFavorites(User loggedUser, Room room) {
 		User dbUser = userRepository.findById(loggedUser.getId()).orElseThrow(UserNotFoundException::new);
 		if(dbUser.getFavorites().contains(room)) {
@@ -140,7 +150,7 @@ public class UserService implements UserDetailsService {
 		} else {
 			dbUser.getFavorites().add(room);
 		}
-		return userRepository.save(dbUser);
+		return FetchUtils.initialize(userRepository.save(dbUser));
 	}
 
 	/**
@@ -152,11 +162,14 @@ public class UserService implements UserDetailsService {
 	 *                               l'utilisateur connecté
 	 * @throws UserNotFoundException si l'utilisateur à supprimer est introuvable
 	 */
+	@Transactional
 	public void delete(int id, User loggedUser){
 		if (loggedUser.getId() != id)
 			throw new ForbiddenException();
 		if (!userRepository.existsById(id))
 			throw new UserNotFoundException();
+		// Les commentaires sont supprimés avec l'utilisateur
+		roomRepository.removeRatingsOf(id);
 		userRepository.deleteById(id);
 	}
 
@@ -0,0 +1,157 @@
+package project.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import project.models.Cluster;
+
+/**
+ * Agrégats des salles par case de carte, précalculés pour chaque niveau de
+ * zoom : nombre de salles, somme des coordonnées pour le centroïde et prix
+ * minimum. Une case du zoom z mesure 360 / (2^z * cellsPerTile) degrés, soit
+ * cellsPerTile cases par tuile de carte. Chaque ajout ou retrait met à jour une
+ * case par niveau.
+ */
+public class ClusterIndex {
+
+	private final int minZoom;
+
+	private final int maxZoom;
+
+	private final int cellsPerTile;
+
+	// Une table de cases par niveau de zoom
+	private final List<Map<Long, Cell>> levels = new ArrayList<>();
+
+	// { latitude, longitude, prix } de chaque salle indexée
+	private final Map<Integer, double[]> members = new HashMap<>();
+
+	private static class Cell {
+
+		private int count;
+
+		private double latitudeSum;
+
+		private double longitudeSum;
+
+		// Multi-ensemble des prix en centimes pour maintenir le minimum au retrait
+		private final TreeMap<Long, Integer> prices = new TreeMap<>();
+	}
+
+	public ClusterIndex(int minZoom, int maxZoom, int cellsPerTile) {
+		this.minZoom = minZoom;
+		this.maxZoom = maxZoom;
+		this.cellsPerTile = cellsPerTile;
+		for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+			levels.add(new HashMap<>());
+		}
+	}
+
+	/**
+	 * Ajouter ou déplacer une salle
+	 */
+	public synchronized void put(int id, double lat, double lon, double price) {
+		remove(id);
+		double[] member = { lat, lon, price };
+		members.put(id, member);
+		for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+			Cell cell = levels.get(zoom - minZoom).computeIfAbsent(key(zoom, lat, lon), k -> new Cell());
+			cell.count++;
+			cell.latitudeSum += lat;
+			cell.longitudeSum += lon;
+			cell.prices.merge(toCents(price), 1, Integer::sum);
+		}
+	}
+
+	public synchronized void remove(int id) {
+		double[] member = members.remove(id);
+		if (member == null)
+			return;
+		for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+			Map<Long, Cell> level = levels.get(zoom - minZoom);
+			long key = key(zoom, member[0], member[1]);
+			Cell cell = level.get(key);
+			if (--cell.count == 0) {
+				level.remove(key);
+				continue;
+			}
+			cell.latitudeSum -= member[0];
+			cell.longitudeSum -= member[1];
+			cell.prices.computeIfPresent(toCents(member[2]), (price, count) -> count == 1 ? null : count - 1);
+		}
+	}
+
+	/**
+	 * Obtenir les regroupements d'une zone de la carte
+	 *
+	 * @param minLat la latitude sud
+	 * @param minLon la longitude ouest
+	 * @param maxLat la latitude nord
+	 * @param maxLon la longitude est, inférieure à minLon si la zone traverse
+	 *               l'antiméridien
+	 * @param zoom   le niveau de zoom, ramené aux niveaux précalculés
+	 * @return un regroupement par case non vide
+	 */
+	public synchronized List<Cluster> clusters(double minLat, double minLon, double maxLat, double maxLon, int zoom) {
+		int z = Math.min(maxZoom, Math.max(minZoom, zoom));
+		Map<Long, Cell> level = levels.get(z - minZoom);
+		double size = cellDegrees(z);
+		int fromLat = index(minLat + 90, size);
+		int toLat = index(maxLat + 90, size);
+		int fromLon = index(minLon + 180, size);
+		int toLon = index(maxLon + 180, size);
+		int lonCount = toLon >= fromLon ? toLon - fromLon + 1 : toLon + lonCells(z) - fromLon + 1;
+		List<Cluster> clusters = new ArrayList<>();
+		if ((long) (toLat - fromLat + 1) * lonCount > level.size()) {
+			// Moins de cases occupées que de cases dans la zone : parcourir les occupées
+			for (Map.Entry<Long, Cell> entry : level.entrySet()) {
+				int latIndex = (int) (entry.getKey() >>> 32);
+				int lonIndex = (int) (long) entry.getKey();
+				if (latIndex >= fromLat && latIndex <= toLat && Math.floorMod(lonIndex - fromLon, lonCells(z)) < lonCount)
+					clusters.add(toCluster(entry.getValue()));
+			}
+			return clusters;
+		}
+		for (int i = fromLat; i <= toLat; i++) {
+			for (int j = 0; j < lonCount; j++) {
+				Cell cell = level.get(key(i, Math.floorMod(fromLon + j, lonCells(z))));
+				if (cell != null)
+					clusters.add(toCluster(cell));
+			}
+		}
+		return clusters;
+	}
+
+	private double cellDegrees(int zoom) {
+		return 360.0 / ((long) cellsPerTile << zoom);
+	}
+
+	private int lonCells(int zoom) {
+		return cellsPerTile << zoom;
+	}
+
+	private long key(int zoom, double lat, double lon) {
+		double size = cellDegrees(zoom);
+		return key(index(lat + 90, size), Math.floorMod(index(lon + 180, size), lonCells(zoom)));
+	}
+
+	private static long key(int latIndex, int lonIndex) {
+		return ((long) latIndex << 32) | lonIndex;
+	}
+
+	private static int index(double degrees, double size) {
+		return (int) Math.floor(degrees / size);
+	}
+
+	private static Cluster toCluster(Cell cell) {
+		return new Cluster(cell.latitudeSum / cell.count, cell.longitudeSum / cell.count, cell.count,
+				cell.prices.firstKey() / 100.0);
+	}
+
+	private static long toCents(double price) {
+		return Math.round(price * 100);
+	}
+}
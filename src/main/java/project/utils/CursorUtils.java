@@ -0,0 +1,120 @@
+package project.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.springframework.http.ResponseEntity;
+
+import project.exceptions.BadRequestException;
+import project.models.CursorPage;
+import project.models.TimeCursor;
+
+/**
+ * Pagination par curseur : le curseur encode l'identifiant du dernier élément
+ * renvoyé et la page suivante est obtenue par une requête WHERE id > curseur,
+ * dont le coût ne dépend pas de la profondeur de la page. Pour un classement
+ * calculé en mémoire, il encode la position du premier élément suivant. Pour
+ * un tri par date, il encode la date et l'identifiant du dernier élément.
+ */
+public class CursorUtils {
+
+	public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+	public static final int DEFAULT_LIMIT = 20;
+
+	public static final int MAX_LIMIT = 100;
+
+	private static final String PREFIX = "id:";
+
+	private static final String TIME_PREFIX = "t:";
+
+	private static final char TIME_SEPARATOR = '_';
+
+	private CursorUtils() {}
+
+	public static String encode(int id) {
+		return base64(PREFIX + id);
+	}
+
+	public static String encode(LocalDateTime time, int id) {
+		return base64(TIME_PREFIX + time + TIME_SEPARATOR + id);
+	}
+
+	/**
+	 * @param cursor le curseur reçu, ou null pour la première page
+	 * @return l'identifiant après lequel reprendre, 0 pour la première page
+	 * @throws BadRequestException si le curseur est invalide
+	 */
+	public static int decode(String cursor) {
+		if (cursor == null || cursor.isEmpty())
+			return 0;
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			if (!value.startsWith(PREFIX))
+				throw new BadRequestException("Curseur invalide");
+			return Integer.parseInt(value.substring(PREFIX.length()));
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException("Curseur invalide");
+		}
+	}
+
+	/**
+	 * @param cursor le curseur reçu, ou null pour la première page
+	 * @return la date et l'identifiant après lesquels reprendre, null pour la
+	 *         première page
+	 * @throws BadRequestException si le curseur est invalide
+	 */
+	public static TimeCursor decodeTime(String cursor) {
+		if (cursor == null || cursor.isEmpty())
+			return null;
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separator = value.lastIndexOf(TIME_SEPARATOR);
+			if (!value.startsWith(TIME_PREFIX) || separator < 0)
+				throw new BadRequestException("Curseur invalide");
+			LocalDateTime time = LocalDateTime.parse(value.substring(TIME_PREFIX.length(), separator));
+			return new TimeCursor(time, Integer.parseInt(value.substring(separator + 1)));
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			throw new BadRequestException("Curseur invalide");
+		}
+	}
+
+	public static int limit(int limit) {
+		return Math.min(Math.max(limit, 1), MAX_LIMIT);
+	}
+
+	/**
+	 * Construire une page à partir d'éléments triés par identifiant, lus avec un
+	 * élément de plus que la limite pour savoir s'il existe une page suivante
+	 */
+	public static <T> CursorPage<T> page(List<T> fetched, int limit, ToIntFunction<T> id) {
+		return pageWith(fetched, limit, item -> encode(id.applyAsInt(item)));
+	}
+
+	/**
+	 * Construire une page comme page(), le curseur suivant étant calculé à partir
+	 * du dernier élément renvoyé
+	 */
+	public static <T> CursorPage<T> pageWith(List<T> fetched, int limit, Function<T, String> cursor) {
+		if (fetched.size() <= limit)
+			return new CursorPage<>(fetched, null);
+		List<T> items = fetched.subList(0, limit);
+		return new CursorPage<>(items, cursor.apply(items.get(limit - 1)));
+	}
+
+	public static <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page) {
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (page.getNext() != null)
+			response.header(NEXT_CURSOR_HEADER, page.getNext());
+		return response.body(page.getItems());
+	}
+
+	private static String base64(String value) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+}
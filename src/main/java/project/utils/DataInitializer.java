@@ -144,7 +144,7 @@ public class DataInitializer {
 			// Création de la salle dancing
 			Room dancing = new Room();
 			dancing.setName("le dancing");
-			dancing.setAvailableDays(Set.of("vendredi", "lundi", "samedi", "dimanche"));
+			dancing.setAvailableDays(DayMask.fromNames(Set.of("vendredi", "lundi", "samedi", "dimanche")));
 			dancing.setEventTypes(Set.of(repet));
 			dancing.setMaxVolume(Volume.MOYEN);
 			dancing.setSize(80);
@@ -3,24 +3,52 @@ package project.utils;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import project.exceptions.BadRequestException;
 
 public class DateUtils {
 
 	private DateUtils() {}
 	
+	/**
+	 * @throws BadRequestException si la date est absente ou mal formée
+	 */
 	public static LocalDate parseDate(String date) {
 		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-		return LocalDate.parse(date, formatter);
+		try {
+			return LocalDate.parse(date, formatter);
+		} catch (DateTimeParseException | NullPointerException e) {
+			throw new BadRequestException("Date invalide");
+		}
 	}
+	/**
+	 * @throws BadRequestException si l'heure est absente ou mal formée
+	 */
 	public static LocalTime parseTime(String time) {
 		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-		return LocalTime.parse(time, formatter);
+		try {
+			return LocalTime.parse(time, formatter);
+		} catch (DateTimeParseException | NullPointerException e) {
+			throw new BadRequestException("Heure invalide");
+		}
 	}
 	
+	/**
+	 * @throws BadRequestException si la date est absente ou mal formée
+	 */
 	public static LocalDateTime parseDateTime(String dateTime) {
 		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-		return LocalDateTime.parse(dateTime, formatter);
-		
+		try {
+			return LocalDateTime.parse(dateTime, formatter);
+		} catch (DateTimeParseException | NullPointerException e) {
+			throw new BadRequestException("Date invalide");
+		}
+	}
+	
+	public static long toEpochSecond(LocalDateTime dateTime) {
+		return dateTime.toEpochSecond(ZoneOffset.UTC);
 	}
 }
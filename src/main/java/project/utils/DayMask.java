@@ -0,0 +1,133 @@
+package project.utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.util.StdConverter;
+
+import project.exceptions.BadRequestException;
+
+/**
+ * Jours de la semaine codés sur 7 bits : le lundi est le bit 0, le dimanche le
+ * bit 6. Les noms de jours en français ne servent qu'à l'échange JSON.
+ */
+public final class DayMask {
+
+	public static final int ALL = 0x7F;
+
+	private static final String[] NAMES = new String[7];
+
+	static {
+		for (DayOfWeek day : DayOfWeek.values()) {
+			NAMES[day.ordinal()] = day.getDisplayName(TextStyle.FULL, Locale.FRANCE);
+		}
+	}
+
+	private DayMask() {
+	}
+
+	public static int of(DayOfWeek day) {
+		return 1 << day.ordinal();
+	}
+
+	public static boolean contains(int mask, DayOfWeek day) {
+		return (mask & of(day)) != 0;
+	}
+
+	/**
+	 * Nom français d'un jour, pour les messages d'erreur
+	 */
+	public static String name(DayOfWeek day) {
+		return NAMES[day.ordinal()];
+	}
+
+	/**
+	 * Obtenir les jours de la semaine couverts par une période
+	 *
+	 * @param start le début de la période
+	 * @param end   la fin exclue de la période
+	 */
+	public static int between(LocalDateTime start, LocalDateTime end) {
+		int mask = 0;
+		LocalDate last = end.minusNanos(1).toLocalDate();
+		for (LocalDate date = start.toLocalDate(); !date.isAfter(last) && mask != ALL; date = date.plusDays(1)) {
+			mask |= of(date.getDayOfWeek());
+		}
+		return mask;
+	}
+
+	/**
+	 * Lister les masques contenant tous les jours d'un masque donné. JPQL
+	 * n'ayant pas d'opérateur bit à bit, le test « masque & jours = jours »
+	 * s'écrit comme une appartenance à cette liste d'au plus 128 valeurs.
+	 */
+	public static List<Integer> supersetsOf(int mask) {
+		List<Integer> result = new ArrayList<>();
+		for (int candidate = mask; candidate <= ALL; candidate = (candidate + 1) | mask) {
+			result.add(candidate);
+		}
+		return result;
+	}
+
+	/**
+	 * @throws BadRequestException si un nom ne correspond à aucun jour
+	 */
+	public static int fromNames(Collection<String> names) {
+		int mask = 0;
+		for (String name : names) {
+			int index = indexOf(name);
+			if (index < 0)
+				throw new BadRequestException("Jour invalide : " + name);
+			mask |= 1 << index;
+		}
+		return mask;
+	}
+
+	public static Set<String> toNames(int mask) {
+		Set<String> names = new LinkedHashSet<>();
+		for (int i = 0; i < NAMES.length; i++) {
+			if ((mask & (1 << i)) != 0)
+				names.add(NAMES[i]);
+		}
+		return names;
+	}
+
+	private static int indexOf(String name) {
+		String folded = TextUtils.fold(name.trim());
+		for (int i = 0; i < NAMES.length; i++) {
+			if (TextUtils.fold(NAMES[i]).equals(folded))
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Sérialisation JSON d'un masque en liste de noms de jours
+	 */
+	public static class ToNames extends StdConverter<Integer, Set<String>> {
+
+		@Override
+		public Set<String> convert(Integer mask) {
+			return toNames(mask);
+		}
+	}
+
+	/**
+	 * Désérialisation JSON d'une liste de noms de jours en masque
+	 */
+	public static class FromNames extends StdConverter<Set<String>, Integer> {
+
+		@Override
+		public Integer convert(Set<String> names) {
+			return fromNames(names);
+		}
+	}
+}
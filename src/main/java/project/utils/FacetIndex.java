@@ -0,0 +1,159 @@
+package project.utils;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index de facettes : un bitmap par valeur de chaque facette sur les ordinaux
+ * des documents. Les ordinaux sont denses (ceux des documents retirés sont
+ * réutilisés), les bitmaps restent donc compacts sans compression. Les
+ * comptages se font par ET bit à bit et popcount, sans allouer de bitmap
+ * intermédiaire par valeur.
+ */
+public class FacetIndex {
+
+	private final Map<Integer, Integer> ordinals = new HashMap<>();
+
+	private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+	private int nextOrdinal;
+
+	private long[] live = new long[0];
+
+	// facette -> valeur -> bitmap
+	private final Map<String, Map<String, long[]>> facets = new LinkedHashMap<>();
+
+	// ordinal -> facette -> valeurs, pour le retrait
+	private final Map<Integer, Map<String, Collection<String>>> documents = new HashMap<>();
+
+	public FacetIndex(String... facetNames) {
+		for (String facet : facetNames) {
+			facets.put(facet, new TreeMap<>());
+		}
+	}
+
+	/**
+	 * Indexer ou réindexer un document
+	 *
+	 * @param id     l'identifiant du document
+	 * @param values les valeurs du document pour chaque facette
+	 */
+	public synchronized void put(int id, Map<String, ? extends Collection<String>> values) {
+		remove(id);
+		int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+		ordinals.put(id, ordinal);
+		live = set(live, ordinal);
+		Map<String, Collection<String>> copy = new HashMap<>();
+		for (Map.Entry<String, ? extends Collection<String>> entry : values.entrySet()) {
+			Map<String, long[]> facet = facets.get(entry.getKey());
+			if (facet == null)
+				throw new IllegalArgumentException("Facette inconnue : " + entry.getKey());
+			copy.put(entry.getKey(), entry.getValue());
+			for (String value : entry.getValue()) {
+				facet.put(value, set(facet.getOrDefault(value, new long[0]), ordinal));
+			}
+		}
+		documents.put(ordinal, copy);
+	}
+
+	public synchronized void remove(int id) {
+		Integer ordinal = ordinals.remove(id);
+		if (ordinal == null)
+			return;
+		clear(live, ordinal);
+		for (Map.Entry<String, Collection<String>> entry : documents.remove(ordinal).entrySet()) {
+			Map<String, long[]> facet = facets.get(entry.getKey());
+			for (String value : entry.getValue()) {
+				long[] bitmap = facet.get(value);
+				clear(bitmap, ordinal);
+				if (isEmpty(bitmap))
+					facet.remove(value);
+			}
+		}
+		freeOrdinals.push(ordinal);
+	}
+
+	/**
+	 * Compter les documents de chaque valeur de facette. Le filtre d'une facette
+	 * ne s'applique pas à ses propres comptages, pour que l'interface puisse
+	 * proposer les autres valeurs.
+	 *
+	 * @param filters la valeur retenue pour certaines facettes
+	 * @param counts  reçoit facette -> valeur -> nombre, valeurs non nulles
+	 *                uniquement
+	 * @return le nombre de documents respectant tous les filtres
+	 */
+	public synchronized int count(Map<String, String> filters, Map<String, Map<String, Integer>> counts) {
+		for (Map.Entry<String, Map<String, long[]>> facet : facets.entrySet()) {
+			long[] mask = mask(filters, facet.getKey());
+			Map<String, Integer> values = new LinkedHashMap<>();
+			for (Map.Entry<String, long[]> value : facet.getValue().entrySet()) {
+				int count = andCardinality(mask, value.getValue());
+				if (count > 0)
+					values.put(value.getKey(), count);
+			}
+			counts.put(facet.getKey(), values);
+		}
+		return cardinality(mask(filters, null));
+	}
+
+	/**
+	 * ET des bitmaps filtrés, hors facette exclue
+	 */
+	private long[] mask(Map<String, String> filters, String excluded) {
+		long[] mask = live.clone();
+		for (Map.Entry<String, String> filter : filters.entrySet()) {
+			if (filter.getValue() == null || filter.getKey().equals(excluded))
+				continue;
+			Map<String, long[]> facet = facets.get(filter.getKey());
+			if (facet == null)
+				throw new IllegalArgumentException("Facette inconnue : " + filter.getKey());
+			long[] bitmap = facet.getOrDefault(filter.getValue(), new long[0]);
+			for (int i = 0; i < mask.length; i++) {
+				mask[i] &= i < bitmap.length ? bitmap[i] : 0;
+			}
+		}
+		return mask;
+	}
+
+	private static long[] set(long[] bitmap, int bit) {
+		int word = bit >>> 6;
+		long[] result = word < bitmap.length ? bitmap : Arrays.copyOf(bitmap, Math.max(word + 1, bitmap.length * 2));
+		result[word] |= 1L << bit;
+		return result;
+	}
+
+	private static void clear(long[] bitmap, int bit) {
+		bitmap[bit >>> 6] &= ~(1L << bit);
+	}
+
+	private static boolean isEmpty(long[] bitmap) {
+		for (long word : bitmap) {
+			if (word != 0)
+				return false;
+		}
+		return true;
+	}
+
+	private static int andCardinality(long[] a, long[] b) {
+		int count = 0;
+		for (int i = 0, n = Math.min(a.length, b.length); i < n; i++) {
+			count += Long.bitCount(a[i] & b[i]);
+		}
+		return count;
+	}
+
+	private static int cardinality(long[] bitmap) {
+		int count = 0;
+		for (long word : bitmap) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+}
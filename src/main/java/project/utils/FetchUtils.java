@@ -0,0 +1,54 @@
+package project.utils;
+
+import org.hibernate.Hibernate;
+
+import project.models.entities.Booking;
+import project.models.entities.Room;
+import project.models.entities.User;
+
+/**
+ * Chargement des associations sérialisées en JSON, à appeler dans la
+ * transaction qui a lu les entités : la session est fermée avant la
+ * sérialisation. Avec hibernate.default_batch_fetch_size, chaque collection
+ * est chargée pour plusieurs entités à la fois, le nombre de requêtes ne
+ * dépend donc pas du nombre d'entités.
+ */
+public class FetchUtils {
+
+	private FetchUtils() {}
+
+	/**
+	 * Charger les collections d'une salle, l'adresse, le type et le propriétaire
+	 * étant lus par le graphe Room.detail
+	 */
+	public static Room initialize(Room room) {
+		Hibernate.initialize(room.getPhotos());
+		Hibernate.initialize(room.getEventTypes());
+		Hibernate.initialize(room.getEquipments());
+		Hibernate.initialize(room.getPricingRules());
+		return room;
+	}
+
+	public static Booking initialize(Booking booking) {
+		Hibernate.initialize(booking.getSlots());
+		if (booking.getRoom() != null)
+			initialize(booking.getRoom());
+		return booking;
+	}
+
+	/**
+	 * Charger les salles, favoris et réservations d'un utilisateur
+	 */
+	public static User initialize(User user) {
+		for (Room room : user.getRooms()) {
+			initialize(room);
+		}
+		for (Room room : user.getFavorites()) {
+			initialize(room);
+		}
+		for (Booking booking : user.getBookings()) {
+			initialize(booking);
+		}
+		return user;
+	}
+}
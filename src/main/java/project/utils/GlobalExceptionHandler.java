@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import project.exceptions.BadRequestException;
 import project.exceptions.ConflictException;
 import project.exceptions.ForbiddenException;
 import project.exceptions.NotFoundException;
@@ -20,6 +21,12 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 		return new ErrorResponse("Une erreur est survenue", 500);
 	}
 	
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	@ExceptionHandler(BadRequestException.class)
+	public ErrorResponse handleBadRequest(BadRequestException e) {
+		return new ErrorResponse(e.getMessage(), 400);
+	}
+	
 	@ResponseStatus(HttpStatus.NOT_FOUND)
 	@ExceptionHandler(NotFoundException.class)
 	public ErrorResponse handleNotFound(NotFoundException e){
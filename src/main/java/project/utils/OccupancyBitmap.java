@@ -0,0 +1,139 @@
+package project.utils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import project.models.Interval;
+
+/**
+ * Occupation d'une salle sous forme de bitmap : chaque jour est découpé en 96
+ * tranches de 15 minutes stockées dans deux long. Seuls les jours ayant au
+ * moins une réservation sont conservés, et les jours passés peuvent être
+ * oubliés avec pruneBefore.
+ *
+ * Cette classe n'est pas thread-safe.
+ */
+public class OccupancyBitmap {
+
+	public static final int SLOT_MINUTES = 15;
+
+	public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+	private static final int WORDS_PER_DAY = (SLOTS_PER_DAY + 63) / 64;
+
+	private final Map<Long, long[]> days = new HashMap<>();
+
+	/**
+	 * Marquer un créneau comme occupé. Les bornes sont arrondies vers l'extérieur
+	 * à la tranche de 15 minutes.
+	 *
+	 * @param start le début du créneau
+	 * @param end   la fin du créneau
+	 */
+	public void mark(LocalDateTime start, LocalDateTime end) {
+		long first = slotIndex(start, false);
+		long last = slotIndex(end, true);
+		for (long slot = first; slot < last; slot++) {
+			long day = Math.floorDiv(slot, SLOTS_PER_DAY);
+			int bit = Math.floorMod(slot, SLOTS_PER_DAY);
+			days.computeIfAbsent(day, d -> new long[WORDS_PER_DAY])[bit >>> 6] |= 1L << (bit & 63);
+		}
+	}
+
+	/**
+	 * Oublier les jours antérieurs à une date
+	 *
+	 * @param day le premier jour conservé
+	 */
+	public void pruneBefore(LocalDate day) {
+		long first = day.toEpochDay();
+		days.keySet().removeIf(d -> d < first);
+	}
+
+	/**
+	 * Nombre de jours ayant au moins une tranche occupée
+	 */
+	public int size() {
+		return days.size();
+	}
+
+	/**
+	 * Calculer les intervalles libres entre deux dates
+	 *
+	 * @param from      le premier jour (inclus)
+	 * @param to        le dernier jour (inclus)
+	 * @param available indique si la salle ouvre un jour donné
+	 * @return la liste ordonnée des intervalles libres
+	 */
+	public List<Interval> freeIntervals(LocalDate from, LocalDate to, Predicate<LocalDate> available) {
+		return freeIntervals(from, to, available, null);
+	}
+
+	/**
+	 * Calculer les intervalles libres entre deux dates, les tranches occupées
+	 * d'un second bitmap étant aussi exclues
+	 *
+	 * @param from      le premier jour (inclus)
+	 * @param to        le dernier jour (inclus)
+	 * @param available indique si la salle ouvre un jour donné
+	 * @param other     un bitmap d'occupation supplémentaire, ou null
+	 * @return la liste ordonnée des intervalles libres
+	 */
+	public List<Interval> freeIntervals(LocalDate from, LocalDate to, Predicate<LocalDate> available,
+			OccupancyBitmap other) {
+		List<Interval> intervals = new ArrayList<>();
+		LocalDateTime runStart = null;
+		for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+			if (!available.test(date)) {
+				runStart = close(intervals, runStart, date.atStartOfDay());
+				continue;
+			}
+			long[] words = union(days.get(date.toEpochDay()),
+					other == null ? null : other.days.get(date.toEpochDay()));
+			if (words == null) {
+				if (runStart == null)
+					runStart = date.atStartOfDay();
+				continue;
+			}
+			for (int bit = 0; bit < SLOTS_PER_DAY; bit++) {
+				LocalDateTime time = date.atStartOfDay().plusMinutes((long) bit * SLOT_MINUTES);
+				boolean busy = (words[bit >>> 6] & (1L << (bit & 63))) != 0;
+				if (busy) {
+					runStart = close(intervals, runStart, time);
+				} else if (runStart == null) {
+					runStart = time;
+				}
+			}
+		}
+		close(intervals, runStart, to.plusDays(1).atStartOfDay());
+		return intervals;
+	}
+
+	private static long[] union(long[] first, long[] second) {
+		if (first == null || second == null)
+			return first == null ? second : first;
+		long[] words = new long[WORDS_PER_DAY];
+		for (int i = 0; i < WORDS_PER_DAY; i++) {
+			words[i] = first[i] | second[i];
+		}
+		return words;
+	}
+
+	private static LocalDateTime close(List<Interval> intervals, LocalDateTime runStart, LocalDateTime end) {
+		if (runStart != null)
+			intervals.add(new Interval(runStart, end));
+		return null;
+	}
+
+	private static long slotIndex(LocalDateTime dateTime, boolean roundUp) {
+		int minutes = dateTime.getHour() * 60 + dateTime.getMinute();
+		long slot = dateTime.toLocalDate().toEpochDay() * SLOTS_PER_DAY + minutes / SLOT_MINUTES;
+		boolean partial = minutes % SLOT_MINUTES != 0 || dateTime.getSecond() != 0 || dateTime.getNano() != 0;
+		return roundUp && partial ? slot + 1 : slot;
+	}
+}
@@ -0,0 +1,111 @@
+package project.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Trie de préfixes immuable pour l'autocomplétion.
+ *
+ * Chaque nœud range ses fils dans deux tableaux triés (caractères et nœuds) et
+ * conserve les k meilleures entrées de son sous-arbre, triées par poids
+ * décroissant : une recherche coûte la longueur du préfixe plus k, quel que
+ * soit le nombre d'entrées.
+ */
+public class PrefixTrie {
+
+	private static final int[] NONE = new int[0];
+
+	private final Node root;
+
+	private final int[] weights;
+
+	private static class Node {
+
+		private char[] labels;
+
+		private Node[] children;
+
+		// Indices des meilleures entrées du sous-arbre
+		private int[] top;
+	}
+
+	private static class Builder {
+
+		private final TreeMap<Character, Builder> children = new TreeMap<>();
+
+		private final List<Integer> entries = new ArrayList<>();
+	}
+
+	private PrefixTrie(Node root, int[] weights) {
+		this.root = root;
+		this.weights = weights;
+	}
+
+	/**
+	 * Construire le trie
+	 *
+	 * @param keys    pour chaque entrée, les clés sous lesquelles la trouver
+	 * @param weights le poids de chaque entrée
+	 * @param k       le nombre d'entrées conservées par nœud
+	 * @return le trie
+	 */
+	public static PrefixTrie build(List<? extends Iterable<String>> keys, int[] weights, int k) {
+		Builder root = new Builder();
+		for (int entry = 0; entry < keys.size(); entry++) {
+			for (String key : keys.get(entry)) {
+				Builder node = root;
+				for (int i = 0; i < key.length(); i++) {
+					node = node.children.computeIfAbsent(key.charAt(i), c -> new Builder());
+				}
+				node.entries.add(entry);
+			}
+		}
+		return new PrefixTrie(freeze(root, weights, k), weights);
+	}
+
+	/**
+	 * Obtenir les meilleures entrées commençant par un préfixe
+	 *
+	 * @param prefix le préfixe
+	 * @param k      le nombre maximum d'entrées
+	 * @return les indices des entrées par poids décroissant
+	 */
+	public int[] lookup(String prefix, int k) {
+		Node node = root;
+		for (int i = 0; i < prefix.length() && node != null; i++) {
+			int index = Arrays.binarySearch(node.labels, prefix.charAt(i));
+			node = index < 0 ? null : node.children[index];
+		}
+		if (node == null)
+			return NONE;
+		return node.top.length <= k ? node.top : Arrays.copyOf(node.top, k);
+	}
+
+	public int weight(int entry) {
+		return weights[entry];
+	}
+
+	private static Node freeze(Builder builder, int[] weights, int k) {
+		Node node = new Node();
+		node.labels = new char[builder.children.size()];
+		node.children = new Node[builder.children.size()];
+		// Entrées candidates : celles du nœud et les meilleures de chaque fils
+		List<Integer> candidates = new ArrayList<>(builder.entries);
+		int i = 0;
+		for (Map.Entry<Character, Builder> child : builder.children.entrySet()) {
+			node.labels[i] = child.getKey();
+			node.children[i] = freeze(child.getValue(), weights, k);
+			for (int entry : node.children[i].top) {
+				candidates.add(entry);
+			}
+			i++;
+		}
+		node.top = candidates.stream().distinct()
+				.sorted((a, b) -> weights[a] != weights[b] ? Integer.compare(weights[b], weights[a]) : Integer.compare(a, b))
+				.limit(k).mapToInt(Integer::intValue).toArray();
+		return node;
+	}
+}
@@ -0,0 +1,156 @@
+package project.utils;
+
+import java.util.List;
+
+import project.models.DayType;
+import project.models.entities.PricingRule;
+
+/**
+ * Grille tarifaire compilée d'une salle : un prix horaire en centimes pour
+ * chaque mois, jour de la semaine et heure. Une salle sans règle n'a qu'un tarif
+ * unique.
+ *
+ * Le calcul d'un prix ne fait aucune allocation : les dates sont manipulées en
+ * secondes depuis l'epoch.
+ */
+public class PriceTable {
+
+	private static final int HOURS_PER_DAY = 24;
+
+	private static final int HOURS_PER_WEEK = 7 * HOURS_PER_DAY;
+
+	private static final int SECONDS_PER_HOUR = 3600;
+
+	private static final int SECONDS_PER_DAY = 86400;
+
+	private final long flatCents;
+
+	// [mois][jour][heure], null si tarif unique
+	private final long[] centsPerHour;
+
+	private PriceTable(long flatCents, long[] centsPerHour) {
+		this.flatCents = flatCents;
+		this.centsPerHour = centsPerHour;
+	}
+
+	/**
+	 * Compiler les règles tarifaires d'une salle
+	 *
+	 * @param basePrice le prix horaire de base en euros
+	 * @param rules     les règles, les dernières l'emportant sur les premières
+	 * @return la grille tarifaire
+	 */
+	public static PriceTable compile(double basePrice, List<PricingRule> rules) {
+		long base = toCents(basePrice);
+		if (rules == null || rules.isEmpty()) {
+			return new PriceTable(base, null);
+		}
+		long[] table = new long[12 * HOURS_PER_WEEK];
+		for (int month = 1; month <= 12; month++) {
+			for (int day = 0; day < 7; day++) {
+				for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+					long cents = base;
+					for (PricingRule rule : rules) {
+						if (matches(rule, month, day, hour)) {
+							cents = toCents(rule.getPrice());
+						}
+					}
+					table[(month - 1) * HOURS_PER_WEEK + day * HOURS_PER_DAY + hour] = cents;
+				}
+			}
+		}
+		return new PriceTable(base, table);
+	}
+
+	/**
+	 * Calculer le prix d'un créneau au prorata de la durée passée dans chaque
+	 * tranche horaire
+	 *
+	 * @param start le début du créneau en secondes depuis l'epoch
+	 * @param end   la fin du créneau en secondes depuis l'epoch
+	 * @return le prix multiplié par 3600 (centimes-secondes) pour éviter les
+	 *         arrondis intermédiaires
+	 */
+	public long centSeconds(long start, long end) {
+		if (end <= start) {
+			return 0;
+		}
+		if (centsPerHour == null) {
+			return flatCents * (end - start);
+		}
+		long total = 0;
+		long time = start;
+		while (time < end) {
+			long epochDay = Math.floorDiv(time, SECONDS_PER_DAY);
+			long dayStart = epochDay * SECONDS_PER_DAY;
+			long dayEnd = Math.min(end, dayStart + SECONDS_PER_DAY);
+			// Le 01/01/1970 était un jeudi, lundi = 0
+			int offset = (monthOf(epochDay) - 1) * HOURS_PER_WEEK + Math.floorMod(epochDay + 3, 7) * HOURS_PER_DAY;
+			while (time < dayEnd) {
+				int hour = (int) ((time - dayStart) / SECONDS_PER_HOUR);
+				long next = Math.min(dayEnd, dayStart + (hour + 1) * (long) SECONDS_PER_HOUR);
+				total += centsPerHour[offset + hour] * (next - time);
+				time = next;
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Calculer le prix d'un créneau
+	 *
+	 * @param start le début du créneau en secondes depuis l'epoch
+	 * @param end   la fin du créneau en secondes depuis l'epoch
+	 * @return le prix en centimes, arrondi à l'inférieur
+	 */
+	public long cents(long start, long end) {
+		return centSeconds(start, end) / SECONDS_PER_HOUR;
+	}
+
+	private static boolean matches(PricingRule rule, int month, int day, int hour) {
+		DayType days = rule.getDays() == null ? DayType.ALL : rule.getDays();
+		if (days == DayType.WEEKDAY && day >= 5 || days == DayType.WEEKEND && day < 5) {
+			return false;
+		}
+		Integer fromHour = rule.getFromHour();
+		Integer toHour = rule.getToHour();
+		// Heure de fin exclue : une plage de 18h à 18h est vide
+		if (fromHour != null && fromHour.equals(toHour)) {
+			return false;
+		}
+		// Heure de fin exclue, mois de fin inclus
+		return inRange(hour, fromHour, toHour == null ? null : toHour - 1)
+				&& inRange(month, rule.getFromMonth(), rule.getToMonth());
+	}
+
+	/**
+	 * Bornes incluses, une borne nulle laissant la plage ouverte de ce côté
+	 */
+	private static boolean inRange(int value, Integer from, Integer to) {
+		if (from == null) {
+			return to == null || value <= to;
+		}
+		if (to == null) {
+			return value >= from;
+		}
+		return from <= to ? value >= from && value <= to : value >= from || value <= to;
+	}
+
+	/**
+	 * Mois (1-12) d'un jour depuis l'epoch, sans allocation (algorithme
+	 * "civil from days" de H. Hinnant)
+	 */
+	private static int monthOf(long epochDay) {
+		long z = epochDay + 719468;
+		long era = Math.floorDiv(z, 146097);
+		long doe = z - era * 146097;
+		long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		long mp = (5 * doy + 2) / 153;
+		return (int) (mp < 10 ? mp + 3 : mp - 9);
+	}
+
+	private static long toCents(double price) {
+		return Math.round(price * 100);
+	}
+}
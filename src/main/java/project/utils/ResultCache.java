@@ -0,0 +1,191 @@
+package project.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache borné de résultats à durée de vie fixe.
+ *
+ * Les demandes simultanées d'une même clé absente ne déclenchent qu'un seul
+ * chargement, les autres attendent son résultat au plus waitMillis, puis
+ * chargent la valeur eux-mêmes sans la conserver. Un chargement qui échoue
+ * n'est pas conservé. Au-delà de maxEntries les entrées les plus anciennes
+ * sont évincées en premier.
+ */
+public class ResultCache<K, V> {
+
+	private static final long DEFAULT_WAIT_MILLIS = 10000;
+
+	private final long ttlMillis;
+
+	private final int maxEntries;
+
+	private final long waitMillis;
+
+	// Ordre d'insertion = ordre d'expiration, la durée de vie étant fixe
+	private final Map<K, Entry<V>> entries = new LinkedHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private static class Entry<V> {
+
+		private final CompletableFuture<V> value = new CompletableFuture<>();
+
+		private final long expiresAt;
+
+		private Entry(long expiresAt) {
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * @param ttlMillis  la durée de vie d'une entrée en millisecondes
+	 * @param maxEntries le nombre maximum d'entrées
+	 */
+	public ResultCache(long ttlMillis, int maxEntries) {
+		this(ttlMillis, maxEntries, DEFAULT_WAIT_MILLIS);
+	}
+
+	/**
+	 * @param ttlMillis  la durée de vie d'une entrée en millisecondes
+	 * @param maxEntries le nombre maximum d'entrées
+	 * @param waitMillis l'attente maximum d'un chargement en cours
+	 */
+	public ResultCache(long ttlMillis, int maxEntries, long waitMillis) {
+		this.ttlMillis = ttlMillis;
+		this.maxEntries = maxEntries;
+		this.waitMillis = waitMillis;
+	}
+
+	/**
+	 * Obtenir la valeur d'une clé, en la chargeant si elle est absente
+	 *
+	 * @param key    la clé
+	 * @param loader le chargement de la valeur, qui ne doit pas renvoyer null
+	 * @return la valeur en cache ou chargée
+	 */
+	public V get(K key, Supplier<V> loader) {
+		while (true) {
+			Entry<V> entry;
+			boolean owner = false;
+			synchronized (entries) {
+				long now = System.currentTimeMillis();
+				evictExpired(now);
+				entry = entries.get(key);
+				if (entry == null) {
+					entry = new Entry<>(now + ttlMillis);
+					entries.put(key, entry);
+					owner = true;
+					if (entries.size() > maxEntries) {
+						Iterator<Entry<V>> eldest = entries.values().iterator();
+						eldest.next();
+						eldest.remove();
+					}
+				}
+			}
+			if (owner) {
+				misses.increment();
+				return load(key, entry, loader);
+			}
+			// Chargement en cours ou terminé : attendre son résultat
+			V value;
+			try {
+				value = entry.value.get(waitMillis, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				// Chargement bloqué : ne pas l'attendre davantage
+				misses.increment();
+				return loader.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return loader.get();
+			} catch (ExecutionException e) {
+				// Le chargement complète toujours sa valeur, éventuellement null
+				throw new IllegalStateException(e.getCause());
+			}
+			if (value != null) {
+				hits.increment();
+				return value;
+			}
+			// Le premier chargement a échoué, il n'est pas conservé : recommencer
+		}
+	}
+
+	/**
+	 * Retirer les entrées vérifiant un prédicat. Les chargements en cours sont
+	 * retirés sans condition, leur résultat pouvant précéder la modification.
+	 *
+	 * @param predicate reçoit la clé et la valeur de chaque entrée chargée
+	 * @return le nombre d'entrées retirées
+	 */
+	public int invalidateIf(BiPredicate<K, V> predicate) {
+		int removed = 0;
+		synchronized (entries) {
+			Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<K, Entry<V>> entry = iterator.next();
+				V value = entry.getValue().value.getNow(null);
+				if (value == null || predicate.test(entry.getKey(), value)) {
+					iterator.remove();
+					removed++;
+				}
+			}
+		}
+		return removed;
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	public long hits() {
+		return hits.sum();
+	}
+
+	public long misses() {
+		return misses.sum();
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	private V load(K key, Entry<V> entry, Supplier<V> loader) {
+		V value = null;
+		try {
+			value = loader.get();
+			return value;
+		} finally {
+			if (value == null) {
+				synchronized (entries) {
+					entries.remove(key, entry);
+				}
+			}
+			entry.value.complete(value);
+		}
+	}
+
+	private void evictExpired(long now) {
+		Iterator<Entry<V>> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			Entry<V> entry = iterator.next();
+			if (entry.expiresAt > now)
+				break;
+			if (entry.value.isDone())
+				iterator.remove();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package project.utils;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Verrous par salle.
+ *
+ * Les identifiants de salle sont répartis sur un nombre fixe de verrous : les
+ * opérations sur une même salle sont sérialisées tandis que celles sur des
+ * salles différentes s'exécutent en parallèle (sauf collision de bande).
+ */
+@Component
+public class RoomLocks {
+
+	private static final int STRIPES = 256;
+
+	private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+	public RoomLocks() {
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Exécuter une action en détenant le verrou d'une salle
+	 *
+	 * @param roomId l'identifiant de la salle
+	 * @param action l'action à exécuter
+	 * @return le résultat de l'action
+	 */
+	public <T> T withLock(int roomId, Supplier<T> action) {
+		ReentrantLock lock = lockFor(roomId);
+		lock.lock();
+		try {
+			return action.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Exécuter une action en détenant les verrous de plusieurs salles. Les verrous
+	 * sont pris dans un ordre fixe pour éviter les interblocages.
+	 *
+	 * @param roomIds les identifiants des salles
+	 * @param action  l'action à exécuter
+	 * @return le résultat de l'action
+	 */
+	public <T> T withLocks(Collection<Integer> roomIds, Supplier<T> action) {
+		TreeSet<Integer> stripes = new TreeSet<>();
+		for (int roomId : roomIds) {
+			stripes.add(stripe(roomId));
+		}
+		for (int stripe : stripes) {
+			locks[stripe].lock();
+		}
+		try {
+			return action.get();
+		} finally {
+			for (int stripe : stripes.descendingSet()) {
+				locks[stripe].unlock();
+			}
+		}
+	}
+
+	private ReentrantLock lockFor(int roomId) {
+		return locks[stripe(roomId)];
+	}
+
+	private static int stripe(int roomId) {
+		int hash = roomId * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+	}
+}
@@ -0,0 +1,139 @@
+package project.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index spatial en grille uniforme : chaque point est rangé dans la case de
+ * cellDegrees degrés qui le contient. Une recherche par rayon ne parcourt que
+ * les cases recouvrant le carré englobant le cercle, puis ne garde que les
+ * points à distance haversine inférieure au rayon.
+ */
+public class SpatialIndex {
+
+	public static final double EARTH_RADIUS_KM = 6371.0088;
+
+	private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+	private final double cellDegrees;
+
+	private final int latCells;
+
+	private final int lonCells;
+
+	private final Map<Long, Set<Integer>> cells = new ConcurrentHashMap<>();
+
+	private final Map<Integer, double[]> positions = new ConcurrentHashMap<>();
+
+	/**
+	 * @param cellDegrees la taille d'une case en degrés
+	 */
+	public SpatialIndex(double cellDegrees) {
+		this.cellDegrees = cellDegrees;
+		this.latCells = (int) Math.ceil(180 / cellDegrees);
+		this.lonCells = (int) Math.ceil(360 / cellDegrees);
+	}
+
+	/**
+	 * Ajouter ou déplacer un point
+	 */
+	public synchronized void put(int id, double lat, double lon) {
+		remove(id);
+		positions.put(id, new double[] { lat, lon });
+		cells.computeIfAbsent(cell(latIndex(lat), lonIndex(lon)), key -> ConcurrentHashMap.newKeySet()).add(id);
+	}
+
+	public synchronized void remove(int id) {
+		double[] position = positions.remove(id);
+		if (position != null) {
+			cells.computeIfPresent(cell(latIndex(position[0]), lonIndex(position[1])), (key, ids) -> {
+				ids.remove(id);
+				return ids.isEmpty() ? null : ids;
+			});
+		}
+	}
+
+	public int size() {
+		return positions.size();
+	}
+
+	/**
+	 * Rechercher les points les plus proches dans un rayon
+	 *
+	 * @param lat      la latitude du centre
+	 * @param lon      la longitude du centre
+	 * @param radiusKm le rayon en kilomètres
+	 * @param k        le nombre maximum de points
+	 * @return les identifiants triés par distance croissante
+	 */
+	public List<Integer> nearest(double lat, double lon, double radiusKm, int k) {
+		// Tas max des k meilleurs candidats : { distance, identifiant }
+		PriorityQueue<double[]> best = new PriorityQueue<>((a, b) -> Double.compare(b[0], a[0]));
+		double deltaLat = radiusKm / KM_PER_DEGREE;
+		int fromLat = latIndex(Math.max(-90, lat - deltaLat));
+		int toLat = latIndex(Math.min(90, lat + deltaLat));
+		double cos = Math.cos(Math.toRadians(Math.min(90, Math.abs(lat) + deltaLat)));
+		double deltaLon = cos <= 0 ? 180 : deltaLat / cos;
+		int fromLon = (int) Math.floor((lon - deltaLon + 180) / cellDegrees);
+		int toLon = (int) Math.floor((lon + deltaLon + 180) / cellDegrees);
+		if (toLon - fromLon + 1 >= lonCells) {
+			fromLon = 0;
+			toLon = lonCells - 1;
+		}
+		for (int i = fromLat; i <= toLat; i++) {
+			for (int j = fromLon; j <= toLon; j++) {
+				Set<Integer> ids = cells.get(cell(i, Math.floorMod(j, lonCells)));
+				if (ids == null)
+					continue;
+				for (Integer id : ids) {
+					double[] position = positions.get(id);
+					if (position == null || Math.abs(position[0] - lat) > deltaLat)
+						continue;
+					double distance = haversine(lat, lon, position[0], position[1]);
+					if (distance > radiusKm)
+						continue;
+					if (best.size() < k) {
+						best.add(new double[] { distance, id });
+					} else if (distance < best.peek()[0]) {
+						best.poll();
+						best.add(new double[] { distance, id });
+					}
+				}
+			}
+		}
+		List<Integer> result = new ArrayList<>(best.size());
+		while (!best.isEmpty()) {
+			result.add((int) best.poll()[1]);
+		}
+		Collections.reverse(result);
+		return result;
+	}
+
+	/**
+	 * Distance orthodromique en kilomètres entre deux points
+	 */
+	public static double haversine(double lat1, double lon1, double lat2, double lon2) {
+		double dLat = Math.toRadians(lat2 - lat1);
+		double dLon = Math.toRadians(lon2 - lon1);
+		double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) + Math.cos(Math.toRadians(lat1))
+				* Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+		return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+	}
+
+	private int latIndex(double lat) {
+		return Math.min(latCells - 1, Math.max(0, (int) Math.floor((lat + 90) / cellDegrees)));
+	}
+
+	private int lonIndex(double lon) {
+		return Math.floorMod((int) Math.floor((lon + 180) / cellDegrees), lonCells);
+	}
+
+	private static long cell(int latIndex, int lonIndex) {
+		return ((long) latIndex << 32) | lonIndex;
+	}
+}
@@ -0,0 +1,15 @@
+package project.utils;
+
+import java.text.Normalizer;
+
+public class TextUtils {
+
+	private TextUtils() {}
+
+	/**
+	 * Retirer les accents et la casse d'un texte
+	 */
+	public static String fold(String text) {
+		return Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase();
+	}
+}
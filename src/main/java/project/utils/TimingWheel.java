@@ -0,0 +1,103 @@
+package project.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Roue temporelle hachée : chaque élément est rangé dans la case correspondant à
+ * son tick d'expiration modulo la taille de la roue. Avancer d'un tick ne
+ * parcourt qu'une case, quel que soit le nombre d'éléments planifiés.
+ *
+ * Cette classe n'est pas thread-safe.
+ */
+public class TimingWheel<T> {
+
+	private final List<List<Timeout<T>>> buckets;
+
+	private final int mask;
+
+	private final long tickMillis;
+
+	private final long origin;
+
+	private long currentTick;
+
+	public static class Timeout<T> {
+
+		private final T item;
+
+		private final long tick;
+
+		private boolean cancelled;
+
+		private Timeout(T item, long tick) {
+			this.item = item;
+			this.tick = tick;
+		}
+
+		public T getItem() {
+			return item;
+		}
+
+		public void cancel() {
+			cancelled = true;
+		}
+	}
+
+	/**
+	 * @param size       le nombre de cases, arrondi à la puissance de 2 supérieure
+	 * @param tickMillis la durée d'un tick en millisecondes
+	 * @param now        l'instant de départ en millisecondes
+	 */
+	public TimingWheel(int size, long tickMillis, long now) {
+		int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+		this.buckets = new ArrayList<>(capacity);
+		for (int i = 0; i < capacity; i++) {
+			buckets.add(new ArrayList<>());
+		}
+		this.mask = capacity - 1;
+		this.tickMillis = tickMillis;
+		this.origin = now;
+	}
+
+	/**
+	 * Planifier l'expiration d'un élément
+	 *
+	 * @param item     l'élément
+	 * @param deadline l'instant d'expiration en millisecondes
+	 * @return le handle permettant d'annuler l'expiration
+	 */
+	public Timeout<T> schedule(T item, long deadline) {
+		long tick = Math.max(currentTick + 1, Math.floorDiv(deadline - origin + tickMillis - 1, tickMillis));
+		Timeout<T> timeout = new Timeout<>(item, tick);
+		buckets.get((int) (tick & mask)).add(timeout);
+		return timeout;
+	}
+
+	/**
+	 * Avancer la roue jusqu'à un instant et signaler les éléments expirés
+	 *
+	 * @param now     l'instant courant en millisecondes
+	 * @param expired appelé pour chaque élément expiré
+	 */
+	public void advance(long now, Consumer<T> expired) {
+		long target = Math.floorDiv(now - origin, tickMillis);
+		// Au-delà d'un tour complet toutes les cases doivent être parcourues une fois
+		long steps = Math.min(target - currentTick, buckets.size());
+		for (long step = 1; step <= steps; step++) {
+			Iterator<Timeout<T>> iterator = buckets.get((int) ((currentTick + step) & mask)).iterator();
+			while (iterator.hasNext()) {
+				Timeout<T> timeout = iterator.next();
+				if (timeout.cancelled) {
+					iterator.remove();
+				} else if (timeout.tick <= target) {
+					iterator.remove();
+					expired.accept(timeout.item);
+				}
+			}
+		}
+		currentTick = Math.max(currentTick, target);
+	}
+}
@@ -0,0 +1,29 @@
+package project.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtils {
+
+	private TransactionUtils() {}
+
+	/**
+	 * Exécuter une mise à jour des index en mémoire après le commit de la
+	 * transaction en cours, pour qu'une annulation n'y laisse aucune trace. Sans
+	 * transaction, la mise à jour est exécutée immédiatement.
+	 *
+	 * @param action la mise à jour
+	 */
+	public static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package project.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index inversé de trigrammes sans accents ni casse.
+ *
+ * Chaque mot est complété par deux espaces devant et un derrière avant d'être
+ * découpé, de sorte que les débuts de mots pèsent davantage. Une recherche ne
+ * parcourt que les listes des trigrammes de la requête ; un document est retenu
+ * s'il contient au moins minSimilarity des trigrammes de la requête, ce qui
+ * tolère les fautes de frappe.
+ */
+public class TrigramIndex {
+
+	private final double minSimilarity;
+
+	private final Map<String, Set<Integer>> postings = new HashMap<>();
+
+	private final Map<Integer, Set<String>> documents = new HashMap<>();
+
+	public TrigramIndex(double minSimilarity) {
+		this.minSimilarity = minSimilarity;
+	}
+
+	/**
+	 * Indexer ou réindexer un document
+	 *
+	 * @param id     l'identifiant du document
+	 * @param fields les textes du document
+	 */
+	public synchronized void put(int id, Collection<String> fields) {
+		remove(id);
+		Set<String> grams = new HashSet<>();
+		for (String field : fields) {
+			grams.addAll(trigrams(field));
+		}
+		documents.put(id, grams);
+		for (String gram : grams) {
+			postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+		}
+	}
+
+	public synchronized void remove(int id) {
+		Set<String> grams = documents.remove(id);
+		if (grams == null)
+			return;
+		for (String gram : grams) {
+			Set<Integer> ids = postings.get(gram);
+			ids.remove(id);
+			if (ids.isEmpty())
+				postings.remove(gram);
+		}
+	}
+
+	public synchronized int size() {
+		return documents.size();
+	}
+
+	/**
+	 * Rechercher les documents proches d'un texte
+	 *
+	 * @param query le texte recherché
+	 * @return les identifiants classés par part décroissante des trigrammes de la
+	 *         requête trouvés, puis par concision du document
+	 */
+	public synchronized List<Integer> search(String query) {
+		Set<String> grams = trigrams(query);
+		if (grams.isEmpty())
+			return new ArrayList<>();
+		Map<Integer, Integer> shared = new HashMap<>();
+		for (String gram : grams) {
+			Set<Integer> ids = postings.get(gram);
+			if (ids != null) {
+				for (Integer id : ids) {
+					shared.merge(id, 1, Integer::sum);
+				}
+			}
+		}
+		int required = (int) Math.ceil(grams.size() * minSimilarity);
+		List<Integer> result = new ArrayList<>();
+		for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+			if (entry.getValue() >= required)
+				result.add(entry.getKey());
+		}
+		result.sort((a, b) -> {
+			int byShared = Integer.compare(shared.get(b), shared.get(a));
+			if (byShared != 0)
+				return byShared;
+			int bySize = Integer.compare(documents.get(a).size(), documents.get(b).size());
+			return bySize != 0 ? bySize : Integer.compare(a, b);
+		});
+		return result;
+	}
+
+	/**
+	 * Découper un texte en trigrammes, sans accents ni casse
+	 */
+	public static Set<String> trigrams(String text) {
+		Set<String> grams = new HashSet<>();
+		if (text == null)
+			return grams;
+		for (String word : TextUtils.fold(text).split("[^a-z0-9]+")) {
+			if (word.isEmpty())
+				continue;
+			String padded = "  " + word + " ";
+			for (int i = 0; i + 3 <= padded.length(); i++) {
+				grams.add(padded.substring(i, i + 3));
+			}
+		}
+		return grams;
+	}
+}
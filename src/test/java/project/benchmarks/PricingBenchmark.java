@@ -0,0 +1,87 @@
+package project.benchmarks;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import project.models.DayType;
+import project.models.RoomBookingInfo;
+import project.models.entities.PricingRule;
+import project.models.entities.TimeSlot;
+import project.repositories.RoomRepository;
+import project.services.PricingService;
+import project.utils.DateUtils;
+
+/**
+ * Comparaison du calcul de prix historique (double + BigDecimal), conservé ici
+ * comme référence, avec PricingService et ses grilles tarifaires compilées en
+ * centimes. Les grilles sont lues dans un RoomRepository simulé puis gardées
+ * en cache par le service, comme en production.
+ *
+ * Lancement : exécuter la méthode main depuis l'IDE ou le classpath de test.
+ */
+public class PricingBenchmark {
+
+	private static final int ITERATIONS = 5_000_000;
+
+	private static final double COMMISSION = 6;
+
+	private static final double TVA = 20;
+
+	private static volatile double sink;
+
+	public static void main(String[] args) {
+		List<TimeSlot> slots = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			TimeSlot slot = new TimeSlot();
+			slot.setStart(DateUtils.parseDateTime("06/01/2020 10:00").plusDays(i));
+			slot.setEnd(slot.getStart().plusHours(2));
+			slots.add(slot);
+		}
+		RoomRepository roomRepository = mock(RoomRepository.class);
+		when(roomRepository.findPricingRulesById(1)).thenReturn(List.of());
+		when(roomRepository.findPricingRulesById(2)).thenReturn(List.of(
+				new PricingRule(DayType.WEEKEND, null, null, null, null, 40),
+				new PricingRule(DayType.ALL, 20, 24, null, null, 30)));
+		PricingService pricingService = new PricingService();
+		ReflectionTestUtils.setField(pricingService, "roomRepository", roomRepository);
+		ReflectionTestUtils.setField(pricingService, "COMMISSION", COMMISSION);
+		ReflectionTestUtils.setField(pricingService, "TVA", TVA);
+		RoomBookingInfo flat = new RoomBookingInfo(1, 25, 0b1111111);
+		RoomBookingInfo rules = new RoomBookingInfo(2, 25, 0b1111111);
+
+		for (int round = 0; round < 3; round++) {
+			System.out.printf("legacy          : %6.1f ns/op%n", measure(() -> legacy(slots)));
+			System.out.printf("service (unique): %6.1f ns/op%n", measure(() -> service(pricingService, flat, slots)));
+			System.out.printf("service (règles): %6.1f ns/op%n", measure(() -> service(pricingService, rules, slots)));
+		}
+	}
+
+	private static double measure(Runnable run) {
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			run.run();
+		}
+		return (System.nanoTime() - start) / (double) ITERATIONS;
+	}
+
+	private static void legacy(List<TimeSlot> slots) {
+		TimeSlot first = slots.get(0);
+		long totalHours = Duration.between(first.getStart(), first.getEnd()).toHours() * slots.size();
+		double price = totalHours * 25.0;
+		price += price / 100 * COMMISSION;
+		price += price / 100 * TVA;
+		sink = BigDecimal.valueOf(price).setScale(1, RoundingMode.FLOOR).doubleValue();
+	}
+
+	private static void service(PricingService pricingService, RoomBookingInfo room, List<TimeSlot> slots) {
+		sink = pricingService.totalCents(room, slots) / 100.0;
+	}
+}
@@ -0,0 +1,71 @@
+package project.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import project.utils.RoomLocks;
+
+/**
+ * Mesure du débit d'admission des réservations avec {@link RoomLocks}.
+ *
+ * Pour 1 à N threads, chaque thread simule une section critique (vérification
+ * + insertion) soit sur sa propre salle, soit sur une salle commune à tous. Le
+ * débit doit croître avec le nombre de coeurs dans le premier cas et rester
+ * plat dans le second.
+ *
+ * Lancement : exécuter la méthode main depuis l'IDE ou le classpath de test.
+ */
+public class RoomLocksBenchmark {
+
+	private static final int DURATION_MS = 2000;
+
+	private static final int WORK = 2000;
+
+	private static volatile long sink;
+
+	public static void main(String[] args) throws InterruptedException {
+		int cores = Runtime.getRuntime().availableProcessors();
+		RoomLocks locks = new RoomLocks();
+		System.out.printf("%-8s %20s %20s%n", "threads", "salles distinctes/s", "même salle/s");
+		for (int threads = 1; threads <= cores; threads *= 2) {
+			long distinct = run(locks, threads, false);
+			long same = run(locks, threads, true);
+			System.out.printf("%-8d %20d %20d%n", threads, distinct, same);
+		}
+	}
+
+	private static long run(RoomLocks locks, int threads, boolean sameRoom) throws InterruptedException {
+		LongAdder operations = new LongAdder();
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(threads);
+		long deadline = System.currentTimeMillis() + DURATION_MS;
+		for (int t = 0; t < threads; t++) {
+			int roomId = sameRoom ? 1 : t + 1;
+			new Thread(() -> {
+				try {
+					start.await();
+					while (System.currentTimeMillis() < deadline) {
+						locks.withLock(roomId, RoomLocksBenchmark::criticalSection);
+						operations.increment();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					done.countDown();
+				}
+			}).start();
+		}
+		start.countDown();
+		done.await();
+		return operations.sum() * 1000 / DURATION_MS;
+	}
+
+	private static Long criticalSection() {
+		long acc = 0;
+		for (int i = 0; i < WORK; i++) {
+			acc += i * 31L ^ acc;
+		}
+		sink = acc;
+		return acc;
+	}
+}
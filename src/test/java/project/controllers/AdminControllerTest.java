@@ -1,6 +1,8 @@
 package project.controllers;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -12,14 +14,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
 import project.exceptions.UserNotFoundException;
+import project.models.CacheStats;
 import project.models.Role;
 import project.services.AdminService;
+import project.services.CommentService;
+import project.services.PhotoService;
+import project.services.SearchCacheService;
 
 class AdminControllerTest extends AbstractControllerTest {
 
 	@MockBean
 	private AdminService adminService;
 	
+	@MockBean
+	private SearchCacheService searchCacheService;
+	
+	@MockBean
+	private CommentService commentService;
+	
+	@MockBean
+	private PhotoService photoService;
+	
 	private static final String URL = "/api/admin";
 	
 	@BeforeEach
@@ -38,6 +53,34 @@ class AdminControllerTest extends AbstractControllerTest {
 			.andExpect(jsonPath("$.email").value(user.getEmail()));
 	}
 	
+	@Test
+	void testSearchCacheStats() throws Exception {
+		when(searchCacheService.stats()).thenReturn(new CacheStats(8, 2, 2));
+		
+		mvc.perform(get(URL + "/search-cache").headers(getAuthorizationHeaders()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.hits").value(8))
+			.andExpect(jsonPath("$.misses").value(2));
+	}
+	
+	@Test
+	void testBackfillRatings() throws Exception {
+		when(commentService.backfillRatings()).thenReturn(3);
+		
+		mvc.perform(post(URL + "/ratings/backfill").headers(getAuthorizationHeaders()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.result").value(3));
+	}
+	
+	@Test
+	void testMigratePhotos() throws Exception {
+		when(photoService.migrateBlobs()).thenReturn(4);
+		
+		mvc.perform(post(URL + "/photos/migrate").headers(getAuthorizationHeaders()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.result").value(4));
+	}
+	
 	@Test
 	void testUpdateUserNotFound() throws Exception {
 		when(adminService.update(2, false)).thenThrow(UserNotFoundException.class);
@@ -1,6 +1,10 @@
 package project.controllers;
 
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -16,9 +20,16 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.ResultActions;
 
 import project.exceptions.BookingNotFoundException;
+import project.exceptions.HoldNotFoundException;
+import project.exceptions.InvalidQuoteException;
 import project.exceptions.UnavailableException;
+import project.models.CursorPage;
+import project.models.Hold;
+import project.models.Quote;
 import project.models.entities.Booking;
+import project.security.IdempotencyFilter;
 import project.services.BookingService;
+import project.utils.CursorUtils;
 
 
 class BookingControllerTest extends AbstractControllerTest {
@@ -40,19 +51,103 @@ class BookingControllerTest extends AbstractControllerTest {
 	
 	@Test
 	void testCreate() throws Exception {
-		when(bookingService.create(Mockito.any())).thenReturn(booking);
+		when(bookingService.create(Mockito.any(), Mockito.any())).thenReturn(booking);
 		ResultActions result = mvc.perform(post(URL).headers(getAuthorizationHeaders()).contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(booking)))
 			.andExpect(status().isCreated());
 		assertOnBooking(result);
 	}
 	
+	@Test
+	void testCreateIdempotent() throws Exception {
+		when(bookingService.create(Mockito.any(), Mockito.any())).thenReturn(booking);
+		for (int i = 0; i < 2; i++) {
+			ResultActions result = mvc.perform(post(URL).headers(getAuthorizationHeaders()).header(IdempotencyFilter.HEADER, "create")
+					.contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(booking)))
+				.andExpect(status().isCreated());
+			assertOnBooking(result);
+		}
+		verify(bookingService, times(1)).create(Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	void testCreateIdempotentWithOtherBody() throws Exception {
+		when(bookingService.create(Mockito.any(), Mockito.any())).thenReturn(booking);
+		mvc.perform(post(URL).headers(getAuthorizationHeaders()).header(IdempotencyFilter.HEADER, "other-body")
+				.contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(booking)))
+			.andExpect(status().isCreated());
+		booking.setPrice(20);
+		mvc.perform(post(URL).headers(getAuthorizationHeaders()).header(IdempotencyFilter.HEADER, "other-body")
+				.contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(booking)))
+			.andExpect(status().isUnprocessableEntity());
+		verify(bookingService, times(1)).create(Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	void testCreateIdempotentAfterError() throws Exception {
+		when(bookingService.create(Mockito.any(), Mockito.any())).thenThrow(UnavailableException.class).thenReturn(booking);
+		mvc.perform(post(URL).headers(getAuthorizationHeaders()).header(IdempotencyFilter.HEADER, "retry")
+				.contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(booking)))
+			.andExpect(status().isConflict());
+		mvc.perform(post(URL).headers(getAuthorizationHeaders()).header(IdempotencyFilter.HEADER, "retry")
+				.contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(booking)))
+			.andExpect(status().isCreated());
+		verify(bookingService, times(2)).create(Mockito.any(), Mockito.any());
+	}
+	
 	@Test
 	void testCreateUnavailable() throws Exception {
-		when(bookingService.create(Mockito.any())).thenThrow(UnavailableException.class);
+		when(bookingService.create(Mockito.any(), Mockito.any())).thenThrow(UnavailableException.class);
+		mvc.perform(post(URL).headers(getAuthorizationHeaders()).contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(booking)))
+			.andExpect(status().isConflict());
+	}
+	
+	@Test
+	void testQuote() throws Exception {
+		when(bookingService.quote(Mockito.any())).thenReturn(new Quote(15, "token", null));
+		mvc.perform(post(URL + "/quote").headers(getAuthorizationHeaders()).contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(booking)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.price").value(15.0))
+			.andExpect(jsonPath("$.token").value("token"));
+	}
+	
+	@Test
+	void testCreateInvalidQuote() throws Exception {
+		when(bookingService.create(Mockito.any(), Mockito.any())).thenThrow(InvalidQuoteException.class);
 		mvc.perform(post(URL).headers(getAuthorizationHeaders()).contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(booking)))
 			.andExpect(status().isConflict());
 	}
 	
+	@Test
+	void testHold() throws Exception {
+		when(bookingService.hold(Mockito.any(), Mockito.any())).thenReturn(new Hold("hold", 1, user.getId(), List.of(), null));
+		mvc.perform(post(URL + "/holds").headers(getAuthorizationHeaders()).contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(booking)))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$.id").value("hold"))
+			.andExpect(jsonPath("$.clientId").doesNotExist());
+	}
+	
+	@Test
+	void testReleaseUnknownHold() throws Exception {
+		doThrow(HoldNotFoundException.class).when(bookingService).release(Mockito.eq("hold"), Mockito.any());
+		mvc.perform(delete(URL + "/holds/hold").headers(getAuthorizationHeaders()))
+			.andExpect(status().isNotFound());
+	}
+	
+	@Test
+	void testCreateAll() throws Exception {
+		when(bookingService.createAll(Mockito.any(), Mockito.any())).thenReturn(List.of(booking));
+		ResultActions result = mvc.perform(post(URL + "/batch").headers(getAuthorizationHeaders()).contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(List.of(booking))))
+			.andExpect(status().isCreated());
+		assertOnList(result);
+	}
+	
+	@Test
+	void testCreateAllUnavailable() throws Exception {
+		when(bookingService.createAll(Mockito.any(), Mockito.any())).thenThrow(UnavailableException.class);
+		mvc.perform(post(URL + "/batch").headers(getAuthorizationHeaders()).contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(List.of(booking))))
+			.andExpect(status().isConflict());
+	}
+	
 	@Test
 	void testFindById() throws Exception {
 		when(bookingService.findById(booking.getId())).thenReturn(booking);
@@ -70,14 +165,14 @@ class BookingControllerTest extends AbstractControllerTest {
 	
 	@Test
 	void testFindByRoom() throws Exception {
-		when(bookingService.findByRoom(1)).thenReturn(List.of(booking));
+		when(bookingService.findByRoom(1, null, CursorUtils.DEFAULT_LIMIT)).thenReturn(new CursorPage<>(List.of(booking), null));
 		ResultActions result = mvc.perform(get(URL + "/rooms/1").headers(getAuthorizationHeaders())).andExpect(status().isOk());
 		assertOnList(result);
 	}
 	
 	@Test
 	void testFindByRoomNoResult() throws Exception {
-		when(bookingService.findByRoom(1)).thenThrow(BookingNotFoundException.class);
+		when(bookingService.findByRoom(1, null, CursorUtils.DEFAULT_LIMIT)).thenThrow(BookingNotFoundException.class);
 		mvc.perform(get(URL + "/rooms/1").headers(getAuthorizationHeaders())).andExpect(status().isNotFound());		
 	}
 	
@@ -1,10 +1,14 @@
 package project.controllers;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -12,8 +16,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 
 import project.exceptions.CommentExistsException;
+import project.exceptions.RoomNotFoundException;
+import project.models.CursorPage;
 import project.models.entities.Comment;
 import project.services.CommentService;
+import project.utils.CursorUtils;
 
 class CommentControllerTest extends AbstractControllerTest {
 
@@ -42,6 +49,24 @@ class CommentControllerTest extends AbstractControllerTest {
 			.andExpect(jsonPath("$.content").value(comment.getContent()));
 	}
 	
+	@Test
+	void testFindByRoom() throws Exception {
+		String next = CursorUtils.encode(comment.getPublishedOn(), comment.getId());
+		when(commentService.findByRoom(2, null, 1)).thenReturn(new CursorPage<>(List.of(comment), next));
+		mvc.perform(get(URL + "/rooms/2?limit=1"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].id").value(comment.getId()))
+			.andExpect(jsonPath("$[0].room").doesNotExist())
+			.andExpect(header().string(CursorUtils.NEXT_CURSOR_HEADER, next));
+	}
+	
+	@Test
+	void testFindByRoomNotFound() throws Exception {
+		when(commentService.findByRoom(2, null, CursorUtils.DEFAULT_LIMIT)).thenThrow(RoomNotFoundException.class);
+		mvc.perform(get(URL + "/rooms/2"))
+			.andExpect(status().isNotFound());
+	}
+	
 	@Test
 	void testCreateCannotComment() throws Exception {
 		when(commentService.create(Mockito.any(), Mockito.any())).thenThrow(CommentExistsException.class);
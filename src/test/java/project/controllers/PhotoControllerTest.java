@@ -4,12 +4,14 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.multipart.MultipartFile;
@@ -26,18 +28,20 @@ class PhotoControllerTest extends AbstractControllerTest {
 	
 	private final Photo photo = new Photo();
 	
+	private final byte[] bytes = {'a', 'b'};
+	
 	private final static String URL = "/api/photos";
 	
 	@BeforeEach
 	public void setUpBeforeEach() {
-		byte[] file = {'a', 'b'};
-		photo.setFile(file);
+		photo.setHash("fb8e20fc2e4c3f248c60c39bd652f3c1347298bb977b8b4d5903b85055620603");
+		photo.setContentType("image/png");
 		mockAuthentication();
 	}
 	
 	@Test
 	void testCreate() throws Exception {
-		MockMultipartFile file = new MockMultipartFile("file.png", photo.getFile());
+		MockMultipartFile file = new MockMultipartFile("file.png", bytes);
 		MultipartFile[] files = {file};
 		doNothing().when(photoService).create(files, 1, user);
 		mvc.perform(MockMvcRequestBuilders.multipart(URL + "/rooms/1").file(file).headers(getAuthorizationHeaders()))
@@ -47,10 +51,32 @@ class PhotoControllerTest extends AbstractControllerTest {
 	
 	@Test
 	void testFindById() throws Exception {
-		when(photoService.findById(photo.getId())).thenReturn(photo.getFile());
+		when(photoService.findById(photo.getId())).thenReturn(photo);
+		when(photoService.load(photo)).thenReturn(new ByteArrayResource(bytes));
+		mvc.perform(get(URL + "/" + photo.getId()))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType("image/png"))
+			.andExpect(header().string("ETag", "\"" + photo.getHash() + "\""))
+			.andExpect(header().string("X-Content-Type-Options", "nosniff"))
+			.andExpect(content().bytes(bytes));
+	}
+	
+	@Test
+	void testFindByIdUnsafeContentType() throws Exception {
+		photo.setContentType("text/html");
+		when(photoService.findById(photo.getId())).thenReturn(photo);
+		when(photoService.load(photo)).thenReturn(new ByteArrayResource(bytes));
 		mvc.perform(get(URL + "/" + photo.getId()))
 			.andExpect(status().isOk())
-			.andExpect(content().bytes(photo.getFile()));
+			.andExpect(content().contentType("image/jpeg"));
+	}
+	
+	@Test
+	void testFindByIdMissingFile() throws Exception {
+		when(photoService.findById(photo.getId())).thenReturn(photo);
+		when(photoService.load(photo)).thenThrow(PhotoNotFoundException.class);
+		mvc.perform(get(URL + "/" + photo.getId()))
+			.andExpect(status().isNotFound());
 	}
 	
 	@Test
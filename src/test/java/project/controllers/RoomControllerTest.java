@@ -2,15 +2,18 @@ package project.controllers;
 
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,11 +22,21 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.ResultActions;
 
+import project.exceptions.BadRequestException;
 import project.exceptions.RoomNotFoundException;
+import project.models.Cluster;
+import project.models.CursorPage;
+import project.models.Facets;
+import project.models.Interval;
+import project.models.RoomSummary;
+import project.models.SearchRoomParams;
+import project.models.Suggestion;
 import project.models.entities.Address;
 import project.models.entities.Room;
 import project.models.entities.User;
 import project.services.RoomService;
+import project.utils.CursorUtils;
+import project.utils.DateUtils;
 
 class RoomControllerTest extends AbstractControllerTest {
 
@@ -32,6 +45,9 @@ class RoomControllerTest extends AbstractControllerTest {
 
     private static final Room room = new Room();
 
+    private static final RoomSummary summary = new RoomSummary(1, "le dancing", 25, "nantes", "salle de danse", 5, 40,
+            "http://localhost:8080/api/photos/3");
+
     private static final String URL = "/api/rooms";
 
     @BeforeEach
@@ -69,7 +85,7 @@ class RoomControllerTest extends AbstractControllerTest {
 
     @Test
     public void testFindAll() throws Exception {
-        when(roomService.findAll(Mockito.any())).thenReturn(List.of(room));
+        when(roomService.findAll(Mockito.any(), Mockito.any(), Mockito.anyInt())).thenReturn(new CursorPage<>(List.of(summary), null));
 
         ResultActions result = mvc.perform(get(URL).headers(getAuthorizationHeaders()))
                 .andExpect(status().isOk());
@@ -78,14 +94,36 @@ class RoomControllerTest extends AbstractControllerTest {
 
     @Test
     public void testFindAllWithNoResult() throws Exception {
-        when(roomService.findAll(Mockito.any())).thenThrow(RoomNotFoundException.class);
+        when(roomService.findAll(Mockito.any(), Mockito.any(), Mockito.anyInt())).thenThrow(RoomNotFoundException.class);
         mvc.perform(get(URL).headers(getAuthorizationHeaders()))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void testFindAllPaged() throws Exception {
+        String after = CursorUtils.encode(5);
+        when(roomService.findAll(Mockito.any(), Mockito.eq(after), Mockito.eq(10)))
+                .thenReturn(new CursorPage<>(List.of(summary), CursorUtils.encode(room.getId())));
+        ResultActions result = mvc.perform(get(URL + "?city=nantes&minCapacity=10&after=" + after + "&limit=10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorUtils.NEXT_CURSOR_HEADER, CursorUtils.encode(room.getId())));
+        assertOnList(result);
+        verify(roomService).findAll(Mockito.<SearchRoomParams>argThat(params -> "nantes".equals(params.getCity())
+                && Integer.valueOf(10).equals(params.getMinCapacity())), Mockito.eq(after), Mockito.eq(10));
+    }
+
+    @Test
+    public void testSearchLastPage() throws Exception {
+        when(roomService.search("danse", null, CursorUtils.DEFAULT_LIMIT)).thenReturn(new CursorPage<>(List.of(summary), null));
+        ResultActions result = mvc.perform(get(URL + "/search?query=danse"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CursorUtils.NEXT_CURSOR_HEADER));
+        assertOnList(result);
+    }
+
     @Test
     public void testFindAllByUser() throws Exception {
-        when(roomService.findByUserId(user.getId())).thenReturn(List.of(room));
+        when(roomService.findByUserId(user.getId(), null, CursorUtils.DEFAULT_LIMIT)).thenReturn(new CursorPage<>(List.of(summary), null));
         ResultActions result = mvc.perform(get(URL + "/users/" + user.getId()))
                 .andExpect(status().isOk());
         assertOnList(result);
@@ -94,7 +132,7 @@ class RoomControllerTest extends AbstractControllerTest {
 
     @Test
     public void testFindAllByUserNoResult() throws Exception {
-        when(roomService.findByUserId(user.getId())).thenThrow(RoomNotFoundException.class);
+        when(roomService.findByUserId(user.getId(), null, CursorUtils.DEFAULT_LIMIT)).thenThrow(RoomNotFoundException.class);
         mvc.perform(get(URL + "/users/" + user.getId()))
                 .andExpect(status().isNotFound());
     }
@@ -115,6 +153,59 @@ class RoomControllerTest extends AbstractControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void testAvailability() throws Exception {
+        Interval interval = new Interval(DateUtils.parseDateTime("06/01/2020 12:00"), DateUtils.parseDateTime("07/01/2020 00:00"));
+        when(roomService.findAvailability(room.getId(), "06/01/2020", "06/01/2020")).thenReturn(List.of(interval));
+        mvc.perform(get(URL + "/" + room.getId() + "/availability?from=06/01/2020&to=06/01/2020"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].start").value("06/01/2020 12:00"))
+                .andExpect(jsonPath("$.[0].end").value("07/01/2020 00:00"));
+    }
+
+    @Test
+    public void testAvailabilityBadPeriod() throws Exception {
+        when(roomService.findAvailability(room.getId(), "06/01/2020", "01/01/2020")).thenThrow(BadRequestException.class);
+        mvc.perform(get(URL + "/" + room.getId() + "/availability?from=06/01/2020&to=01/01/2020"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testFacets() throws Exception {
+        when(roomService.findFacets(Mockito.argThat(filters -> "BRUYANT".equals(filters.get("volume"))
+                && filters.get("type") == null))).thenReturn(new Facets(7, Map.of("equipment", Map.of("sono", 7))));
+        mvc.perform(get(URL + "/facets?volume=BRUYANT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("total").value(7))
+                .andExpect(jsonPath("counts.equipment.sono").value(7));
+    }
+
+    @Test
+    public void testSuggest() throws Exception {
+        when(roomService.suggest("dan", 5)).thenReturn(List.of(new Suggestion("salle de danse", "type", 3)));
+        mvc.perform(get(URL + "/suggest?prefix=dan&limit=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].text").value("salle de danse"))
+                .andExpect(jsonPath("$.[0].kind").value("type"))
+                .andExpect(jsonPath("$.[0].weight").value(3));
+    }
+
+    @Test
+    public void testClusters() throws Exception {
+        when(roomService.findClusters("2.0,48.9,2.1,49.0", 12)).thenReturn(List.of(new Cluster(48.957, 2.063, 2, 15)));
+        mvc.perform(get(URL + "/clusters?bbox=2.0,48.9,2.1,49.0&zoom=12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].count").value(2))
+                .andExpect(jsonPath("$.[0].minPrice").value(15.0));
+    }
+
+    @Test
+    public void testClustersBadBbox() throws Exception {
+        when(roomService.findClusters("2.0,48.9", 12)).thenThrow(BadRequestException.class);
+        mvc.perform(get(URL + "/clusters?bbox=2.0,48.9&zoom=12"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testDelete() throws Exception {
         mockAuthentication();
@@ -144,9 +235,10 @@ class RoomControllerTest extends AbstractControllerTest {
     
     private void assertOnList(ResultActions result) throws Exception {
         result
-                .andExpect(jsonPath("$.[0].id").value(room.getId()))
-                .andExpect(jsonPath("$.[0].address.city").value("nantes"))
-                .andExpect(jsonPath("$.[0].owner.id").value(user.getId()));
+                .andExpect(jsonPath("$.[0].id").value(summary.getId()))
+                .andExpect(jsonPath("$.[0].city").value("nantes"))
+                .andExpect(jsonPath("$.[0].coverUrl").value(summary.getCoverUrl()))
+                .andExpect(jsonPath("$.[0].owner").doesNotExist());
 
     }
 
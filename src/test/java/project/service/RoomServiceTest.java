@@ -1,8 +1,11 @@
 package project.service;
 
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -10,11 +13,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import project.models.CursorPage;
+import project.models.RoomSummary;
 import project.models.entities.Booking;
 import project.models.entities.Room;
 import project.models.entities.User;
 import project.repositories.RoomRepository;
+import project.services.LocationService;
+import project.services.RoomSearchService;
 import project.services.RoomService;
+import project.services.SearchCacheService;
 
 @SpringBootTest
 class RoomServiceTest {
@@ -22,6 +30,15 @@ class RoomServiceTest {
 	@Mock
 	private RoomRepository roomRepository;
 	
+	@Mock
+	private LocationService locationService;
+	
+	@Mock
+	private SearchCacheService searchCacheService;
+	
+	@Mock
+	private RoomSearchService roomSearchService;
+	
 	@InjectMocks
 	private RoomService roomService;
 
@@ -50,6 +67,19 @@ class RoomServiceTest {
 		// assert
 		assertEquals(1, result.getId());
 	}
+	
+	@Test
+	void testSearchNothing() {
+		// arrange
+		when(roomSearchService.search("zzz")).thenReturn(List.of());
+		
+		// act
+		CursorPage<RoomSummary> result = roomService.search("zzz", null, 20);
+		
+		// assert
+		assertTrue(result.getItems().isEmpty());
+		assertNull(result.getNext());
+	}
 	/**
 	@Test
 	void testFindById() {
@@ -0,0 +1,64 @@
+package project.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class LocalBlobStoreTest {
+
+	@TempDir
+	Path root;
+
+	private final LocalBlobStore blobStore = new LocalBlobStore();
+
+	@BeforeEach
+	public void setUpBeforeEach() {
+		ReflectionTestUtils.setField(blobStore, "root", root.toString());
+	}
+
+	@Test
+	void testPutAndGet() throws IOException {
+		// Arrange
+		byte[] bytes = { 'a', 'b' };
+		// Act
+		String hash = blobStore.put(new ByteArrayInputStream(bytes));
+		// Assert
+		assertEquals("fb8e20fc2e4c3f248c60c39bd652f3c1347298bb977b8b4d5903b85055620603", hash);
+		assertTrue(Files.exists(root.resolve("fb").resolve("8e").resolve(hash)));
+		try (InputStream in = blobStore.get(hash).get().getInputStream()) {
+			assertArrayEquals(bytes, in.readAllBytes());
+		}
+	}
+
+	@Test
+	void testPutSameContentTwice() throws IOException {
+		// Act
+		String first = blobStore.put(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+		String second = blobStore.put(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+		// Assert
+		assertEquals(first, second);
+		try (Stream<Path> files = Files.walk(root)) {
+			assertEquals(1, files.filter(Files::isRegularFile).count());
+		}
+	}
+
+	@Test
+	void testGetUnknownOrInvalidHash() {
+		assertFalse(blobStore.get("0".repeat(64)).isPresent());
+		assertFalse(blobStore.get("../../etc/passwd").isPresent());
+		assertFalse(blobStore.get(null).isPresent());
+	}
+}
@@ -30,6 +30,7 @@ import project.exceptions.ForbiddenException;
 import project.exceptions.UserNotFoundException;
 import project.models.entities.Room;
 import project.models.entities.User;
+import project.repositories.RoomRepository;
 import project.repositories.UserRepository;
 
 @SpringBootTest
@@ -38,6 +39,9 @@ class UserServiceTest {
 	@Mock
 	private UserRepository userRepository;
 
+	@Mock
+	private RoomRepository roomRepository;
+
 	@Mock
 	PasswordEncoder passwordEncoder;
 
@@ -115,11 +119,11 @@ class UserServiceTest {
 	@Test
 	void testFindById() {
 		// Arrange
-		when(userRepository.findById(1)).thenReturn(Optional.of(user));
+		when(userRepository.findProfileById(1)).thenReturn(Optional.of(user));
 		// Act
 		User result = userService.findById(1, user);
 		// Assert
-		verify(userRepository, times(1)).findById(1);
+		verify(userRepository, times(1)).findProfileById(1);
 		assertEquals(1, result.getId());
 		assertEquals("email", result.getEmail());
 	}
@@ -0,0 +1,64 @@
+package project.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import project.models.Cluster;
+
+class ClusterIndexTest {
+
+	@Test
+	void testClusters() {
+		// Arrange
+		ClusterIndex index = new ClusterIndex(3, 16, 4);
+		index.put(1, 48.956, 2.062, 25);
+		index.put(2, 48.958, 2.064, 15);
+		index.put(3, 47.218, -1.553, 40);
+		// Act
+		List<Cluster> wide = index.clusters(40, -5, 52, 8, 3);
+		List<Cluster> close = index.clusters(48.9, 2.0, 49.0, 2.1, 16);
+		// Assert
+		wide.sort(Comparator.comparingDouble(Cluster::getLatitude));
+		assertEquals(2, wide.size());
+		assertEquals(1, wide.get(0).getCount());
+		assertEquals(2, wide.get(1).getCount());
+		assertEquals(48.957, wide.get(1).getLatitude(), 1e-9);
+		assertEquals(15, wide.get(1).getMinPrice());
+		assertEquals(2, close.size());
+	}
+
+	@Test
+	void testIncrementalUpdate() {
+		// Arrange
+		ClusterIndex index = new ClusterIndex(3, 16, 4);
+		index.put(1, 48.956, 2.062, 25);
+		index.put(2, 48.958, 2.064, 15);
+		// Act
+		index.remove(2);
+		index.put(1, 48.956, 2.062, 30);
+		// Assert
+		List<Cluster> clusters = index.clusters(40, -5, 52, 8, 5);
+		assertEquals(1, clusters.size());
+		assertEquals(1, clusters.get(0).getCount());
+		assertEquals(30, clusters.get(0).getMinPrice());
+		index.remove(1);
+		assertTrue(index.clusters(40, -5, 52, 8, 5).isEmpty());
+	}
+
+	@Test
+	void testAntimeridian() {
+		// Arrange
+		ClusterIndex index = new ClusterIndex(3, 16, 4);
+		index.put(1, 0, 179.9, 10);
+		index.put(2, 0, -179.9, 10);
+		index.put(3, 0, 0, 10);
+		// Act & Assert
+		assertEquals(2, index.clusters(-1, 179, 1, -179, 10).size());
+		assertEquals(2, index.clusters(-1, 179, 1, -179, 3).stream().mapToInt(Cluster::getCount).sum());
+	}
+}
@@ -0,0 +1,53 @@
+package project.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import project.exceptions.BadRequestException;
+import project.models.CursorPage;
+import project.models.TimeCursor;
+
+class CursorUtilsTest {
+
+	@Test
+	void testEncodeDecode() {
+		assertEquals(0, CursorUtils.decode(null));
+		assertEquals(42, CursorUtils.decode(CursorUtils.encode(42)));
+		assertThrows(BadRequestException.class, () -> CursorUtils.decode("invalide!"));
+		assertThrows(BadRequestException.class, () -> CursorUtils.decode(CursorUtils.encode(1).substring(1)));
+	}
+
+	@Test
+	void testEncodeDecodeTime() {
+		// Arrange
+		LocalDateTime time = LocalDateTime.of(2020, 3, 14, 15, 9, 26);
+		// Act
+		TimeCursor cursor = CursorUtils.decodeTime(CursorUtils.encode(time, 7));
+		// Assert
+		assertNull(CursorUtils.decodeTime(null));
+		assertEquals(time, cursor.getTime());
+		assertEquals(7, cursor.getId());
+		assertThrows(BadRequestException.class, () -> CursorUtils.decodeTime(CursorUtils.encode(7)));
+		assertThrows(BadRequestException.class, () -> CursorUtils.decodeTime(CursorUtils.encode(time, 7).substring(2)));
+	}
+
+	@Test
+	void testPage() {
+		// Arrange
+		List<Integer> fetched = List.of(3, 5, 8);
+		// Act
+		CursorPage<Integer> full = CursorUtils.page(fetched, 2, Integer::intValue);
+		CursorPage<Integer> last = CursorUtils.page(fetched, 3, Integer::intValue);
+		// Assert
+		assertEquals(List.of(3, 5), full.getItems());
+		assertEquals(5, CursorUtils.decode(full.getNext()));
+		assertEquals(fetched, last.getItems());
+		assertNull(last.getNext());
+	}
+}
@@ -0,0 +1,36 @@
+package project.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import project.exceptions.BadRequestException;
+
+class DateUtilsTest {
+
+	@Test
+	void testParseDate() {
+		// Act
+		LocalDate date = DateUtils.parseDate("06/01/2020");
+		// Assert
+		assertEquals(LocalDate.of(2020, 1, 6), date);
+	}
+
+	@Test
+	void testParseInvalidDate() {
+		// Assert
+		assertThrows(BadRequestException.class, () -> DateUtils.parseDate("2020-01-06"));
+		assertThrows(BadRequestException.class, () -> DateUtils.parseDate("32/01/2020"));
+		assertThrows(BadRequestException.class, () -> DateUtils.parseDate(null));
+	}
+
+	@Test
+	void testParseInvalidDateTime() {
+		// Assert
+		assertThrows(BadRequestException.class, () -> DateUtils.parseDateTime("06/01/2020"));
+		assertThrows(BadRequestException.class, () -> DateUtils.parseDateTime("06/01/2020 25:00"));
+	}
+}
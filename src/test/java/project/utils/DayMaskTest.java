@@ -0,0 +1,56 @@
+package project.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import project.exceptions.BadRequestException;
+
+class DayMaskTest {
+
+	@Test
+	void testNames() {
+		// Arrange
+		int mask = DayMask.fromNames(Set.of("lundi", "Vendredi", "dimanche"));
+		// Act
+		Set<String> names = DayMask.toNames(mask);
+		// Assert
+		assertEquals(0b1010001, mask);
+		assertEquals(List.of("lundi", "vendredi", "dimanche"), List.copyOf(names));
+		assertTrue(DayMask.contains(mask, DayOfWeek.FRIDAY));
+		assertFalse(DayMask.contains(mask, DayOfWeek.TUESDAY));
+		assertThrows(BadRequestException.class, () -> DayMask.fromNames(Set.of("jour")));
+	}
+
+	@Test
+	void testBetween() {
+		// Samedi 10h - lundi 0h : samedi et dimanche
+		int weekend = DayMask.between(LocalDateTime.of(2020, 2, 1, 10, 0), LocalDateTime.of(2020, 2, 3, 0, 0));
+		int fortnight = DayMask.between(LocalDateTime.of(2020, 2, 1, 10, 0), LocalDateTime.of(2020, 2, 15, 0, 0));
+		assertEquals(DayMask.of(DayOfWeek.SATURDAY) | DayMask.of(DayOfWeek.SUNDAY), weekend);
+		assertEquals(DayMask.ALL, fortnight);
+	}
+
+	@Test
+	void testSupersetsOf() {
+		// Arrange
+		int mask = DayMask.of(DayOfWeek.MONDAY) | DayMask.of(DayOfWeek.FRIDAY);
+		// Act
+		List<Integer> supersets = DayMask.supersetsOf(mask);
+		// Assert
+		assertEquals(32, supersets.size());
+		for (int candidate = 0; candidate <= DayMask.ALL; candidate++) {
+			assertEquals((candidate & mask) == mask, supersets.contains(candidate));
+		}
+		assertEquals(128, DayMask.supersetsOf(0).size());
+		assertEquals(List.of(DayMask.ALL), DayMask.supersetsOf(DayMask.ALL));
+	}
+}
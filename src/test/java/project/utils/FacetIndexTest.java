@@ -0,0 +1,68 @@
+package project.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class FacetIndexTest {
+
+	private FacetIndex index() {
+		FacetIndex index = new FacetIndex("type", "equipment", "volume");
+		index.put(1, Map.of("type", List.of("bar"), "equipment", List.of("sono", "wifi"), "volume", List.of("BRUYANT")));
+		index.put(2, Map.of("type", List.of("bar"), "equipment", List.of("wifi"), "volume", List.of("CALME")));
+		index.put(3, Map.of("type", List.of("atelier"), "equipment", List.of("sono"), "volume", List.of("BRUYANT")));
+		return index;
+	}
+
+	@Test
+	void testCountWithoutFilter() {
+		// Arrange
+		Map<String, Map<String, Integer>> counts = new HashMap<>();
+		// Act
+		int total = index().count(Map.of(), counts);
+		// Assert
+		assertEquals(3, total);
+		assertEquals(Map.of("bar", 2, "atelier", 1), counts.get("type"));
+		assertEquals(Map.of("sono", 2, "wifi", 2), counts.get("equipment"));
+		assertEquals(Map.of("BRUYANT", 2, "CALME", 1), counts.get("volume"));
+	}
+
+	@Test
+	void testCountWithFilters() {
+		// Arrange
+		Map<String, Map<String, Integer>> counts = new HashMap<>();
+		Map<String, String> filters = new HashMap<>();
+		filters.put("type", "bar");
+		filters.put("equipment", "sono");
+		filters.put("volume", null);
+		// Act
+		int total = index().count(filters, counts);
+		// Assert
+		assertEquals(1, total);
+		// Le filtre d'une facette ne réduit pas ses propres valeurs
+		assertEquals(Map.of("bar", 1, "atelier", 1), counts.get("type"));
+		assertEquals(Map.of("sono", 1, "wifi", 2), counts.get("equipment"));
+		assertEquals(Map.of("BRUYANT", 1), counts.get("volume"));
+	}
+
+	@Test
+	void testUpdateAndRemove() {
+		// Arrange
+		FacetIndex index = index();
+		Map<String, Map<String, Integer>> counts = new HashMap<>();
+		// Act
+		index.remove(1);
+		index.put(3, Map.of("type", List.of("bar")));
+		index.put(4, Map.of("type", List.of("bar")));
+		int total = index.count(Map.of("type", "bar"), counts);
+		// Assert
+		assertEquals(3, total);
+		assertEquals(Map.of("bar", 3), counts.get("type"));
+		assertEquals(Map.of("wifi", 1), counts.get("equipment"));
+		assertEquals(Map.of("CALME", 1), counts.get("volume"));
+	}
+}
@@ -0,0 +1,87 @@
+package project.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import project.models.Interval;
+
+class OccupancyBitmapTest {
+
+	private final LocalDate day = DateUtils.parseDate("06/01/2020");
+
+	@Test
+	void testFreeIntervals() {
+		// Arrange
+		OccupancyBitmap bitmap = new OccupancyBitmap();
+		bitmap.mark(DateUtils.parseDateTime("06/01/2020 10:00"), DateUtils.parseDateTime("06/01/2020 12:00"));
+		// Act
+		List<Interval> result = bitmap.freeIntervals(day, day, date -> true);
+		// Assert
+		assertEquals(2, result.size());
+		assertEquals(DateUtils.parseDateTime("06/01/2020 00:00"), result.get(0).getStart());
+		assertEquals(DateUtils.parseDateTime("06/01/2020 10:00"), result.get(0).getEnd());
+		assertEquals(DateUtils.parseDateTime("06/01/2020 12:00"), result.get(1).getStart());
+		assertEquals(DateUtils.parseDateTime("07/01/2020 00:00"), result.get(1).getEnd());
+	}
+
+	@Test
+	void testMarkRoundsOutward() {
+		// Arrange
+		OccupancyBitmap bitmap = new OccupancyBitmap();
+		bitmap.mark(DateUtils.parseDateTime("06/01/2020 10:10"), DateUtils.parseDateTime("06/01/2020 10:20"));
+		// Act
+		List<Interval> result = bitmap.freeIntervals(day, day, date -> true);
+		// Assert
+		assertEquals(DateUtils.parseDateTime("06/01/2020 10:00"), result.get(0).getEnd());
+		assertEquals(DateUtils.parseDateTime("06/01/2020 10:30"), result.get(1).getStart());
+	}
+
+	@Test
+	void testFreeIntervalsWithOtherBitmap() {
+		// Arrange
+		OccupancyBitmap bitmap = new OccupancyBitmap();
+		bitmap.mark(DateUtils.parseDateTime("06/01/2020 10:00"), DateUtils.parseDateTime("06/01/2020 12:00"));
+		OccupancyBitmap held = new OccupancyBitmap();
+		held.mark(DateUtils.parseDateTime("06/01/2020 14:00"), DateUtils.parseDateTime("06/01/2020 15:00"));
+		// Act
+		List<Interval> result = bitmap.freeIntervals(day, day, date -> true, held);
+		// Assert
+		assertEquals(3, result.size());
+		assertEquals(DateUtils.parseDateTime("06/01/2020 14:00"), result.get(1).getEnd());
+		assertEquals(DateUtils.parseDateTime("06/01/2020 15:00"), result.get(2).getStart());
+		assertEquals(2, bitmap.freeIntervals(day, day, date -> true).size());
+	}
+
+	@Test
+	void testPruneBefore() {
+		// Arrange
+		OccupancyBitmap bitmap = new OccupancyBitmap();
+		bitmap.mark(DateUtils.parseDateTime("05/01/2020 10:00"), DateUtils.parseDateTime("05/01/2020 11:00"));
+		bitmap.mark(DateUtils.parseDateTime("06/01/2020 10:00"), DateUtils.parseDateTime("06/01/2020 11:00"));
+		// Act
+		bitmap.pruneBefore(day);
+		// Assert
+		assertEquals(1, bitmap.size());
+		assertEquals(2, bitmap.freeIntervals(day, day, date -> true).size());
+	}
+
+	@Test
+	void testFreeIntervalsSkipUnavailableDays() {
+		// Arrange
+		OccupancyBitmap bitmap = new OccupancyBitmap();
+		bitmap.mark(DateUtils.parseDateTime("06/01/2020 23:00"), DateUtils.parseDateTime("07/01/2020 01:00"));
+		// Act
+		List<Interval> result = bitmap.freeIntervals(day, day.plusDays(2),
+				date -> date.getDayOfWeek() != DayOfWeek.WEDNESDAY);
+		// Assert
+		assertEquals(2, result.size());
+		assertEquals(DateUtils.parseDateTime("06/01/2020 23:00"), result.get(0).getEnd());
+		assertEquals(DateUtils.parseDateTime("07/01/2020 01:00"), result.get(1).getStart());
+		assertEquals(DateUtils.parseDateTime("08/01/2020 00:00"), result.get(1).getEnd());
+	}
+}
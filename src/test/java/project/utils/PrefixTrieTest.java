@@ -0,0 +1,36 @@
+package project.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PrefixTrieTest {
+
+	@Test
+	void testLookup() {
+		// Arrange
+		List<List<String>> keys = List.of(List.of("le dancing", "dancing"), List.of("nantes"), List.of("salle de danse",
+				"de danse", "danse"), List.of("nanterre"));
+		PrefixTrie trie = PrefixTrie.build(keys, new int[] { 1, 5, 3, 2 }, 10);
+		// Act & Assert
+		assertArrayEquals(new int[] { 2, 0 }, trie.lookup("dan", 10));
+		assertArrayEquals(new int[] { 1, 3 }, trie.lookup("nan", 10));
+		assertArrayEquals(new int[] { 1 }, trie.lookup("nan", 1));
+		assertArrayEquals(new int[] { 3 }, trie.lookup("nanter", 10));
+		assertArrayEquals(new int[0], trie.lookup("x", 10));
+		assertEquals(5, trie.weight(1));
+	}
+
+	@Test
+	void testTopK() {
+		// Arrange
+		List<List<String>> keys = List.of(List.of("a1"), List.of("a2"), List.of("a3"), List.of("b"));
+		PrefixTrie trie = PrefixTrie.build(keys, new int[] { 1, 3, 2, 9 }, 2);
+		// Act & Assert
+		assertArrayEquals(new int[] { 3, 1 }, trie.lookup("", 10));
+		assertArrayEquals(new int[] { 1, 2 }, trie.lookup("a", 10));
+	}
+}
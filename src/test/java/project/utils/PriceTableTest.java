@@ -0,0 +1,85 @@
+package project.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import project.models.DayType;
+import project.models.entities.PricingRule;
+
+class PriceTableTest {
+
+	private static long seconds(String dateTime) {
+		return DateUtils.toEpochSecond(DateUtils.parseDateTime(dateTime));
+	}
+
+	@Test
+	void testFlatPrice() {
+		PriceTable table = PriceTable.compile(25, List.of());
+		assertEquals(5000, table.cents(seconds("06/01/2020 10:00"), seconds("06/01/2020 12:00")));
+		assertEquals(3750, table.cents(seconds("06/01/2020 10:00"), seconds("06/01/2020 11:30")));
+	}
+
+	@Test
+	void testWeekendAndEveningRates() {
+		// Arrange
+		PricingRule weekend = new PricingRule(DayType.WEEKEND, null, null, null, null, 40);
+		PricingRule evening = new PricingRule(DayType.ALL, 20, 24, null, null, 30);
+		PriceTable table = PriceTable.compile(25, List.of(weekend, evening));
+		// Assert : lundi 19h-21h = 25 + 30
+		assertEquals(5500, table.cents(seconds("06/01/2020 19:00"), seconds("06/01/2020 21:00")));
+		// samedi 10h-11h = 40
+		assertEquals(4000, table.cents(seconds("11/01/2020 10:00"), seconds("11/01/2020 11:00")));
+		// samedi 21h-22h : la dernière règle l'emporte
+		assertEquals(3000, table.cents(seconds("11/01/2020 21:00"), seconds("11/01/2020 22:00")));
+	}
+
+	@Test
+	void testSeasonalRateAcrossYearEnd() {
+		// Arrange
+		PricingRule winter = new PricingRule(DayType.ALL, null, null, 11, 2, 20);
+		PriceTable table = PriceTable.compile(25, List.of(winter));
+		// Assert
+		assertEquals(2000, table.cents(seconds("06/01/2020 10:00"), seconds("06/01/2020 11:00")));
+		assertEquals(2000, table.cents(seconds("02/12/2020 10:00"), seconds("02/12/2020 11:00")));
+		assertEquals(2500, table.cents(seconds("06/07/2020 10:00"), seconds("06/07/2020 11:00")));
+		// 29/02 23h - 01/03 01h
+		assertEquals(4500, table.cents(seconds("29/02/2020 23:00"), seconds("01/03/2020 01:00")));
+	}
+
+	@Test
+	void testSingleBoundHours() {
+		// Arrange
+		PricingRule evening = new PricingRule(DayType.ALL, 18, null, null, null, 30);
+		PricingRule morning = new PricingRule(DayType.ALL, null, 8, null, null, 20);
+		PriceTable table = PriceTable.compile(25, List.of(evening, morning));
+		// Assert : la soirée commence à 18h, la matinée finit à 8h
+		assertEquals(2500, table.cents(seconds("06/01/2020 10:00"), seconds("06/01/2020 11:00")));
+		assertEquals(3000, table.cents(seconds("06/01/2020 18:00"), seconds("06/01/2020 19:00")));
+		assertEquals(3000, table.cents(seconds("06/01/2020 23:00"), seconds("07/01/2020 00:00")));
+		assertEquals(2000, table.cents(seconds("06/01/2020 07:00"), seconds("06/01/2020 08:00")));
+		assertEquals(2500, table.cents(seconds("06/01/2020 08:00"), seconds("06/01/2020 09:00")));
+	}
+
+	@Test
+	void testEmptyHourRange() {
+		// Arrange
+		PricingRule empty = new PricingRule(DayType.ALL, 18, 18, null, null, 30);
+		PriceTable table = PriceTable.compile(25, List.of(empty));
+		// Assert
+		assertEquals(2500, table.cents(seconds("06/01/2020 18:00"), seconds("06/01/2020 19:00")));
+		assertEquals(2500, table.cents(seconds("06/01/2020 10:00"), seconds("06/01/2020 11:00")));
+	}
+
+	@Test
+	void testSingleBoundMonths() {
+		// Arrange
+		PricingRule endOfYear = new PricingRule(DayType.ALL, null, null, 11, null, 20);
+		PriceTable table = PriceTable.compile(25, List.of(endOfYear));
+		// Assert
+		assertEquals(2000, table.cents(seconds("02/12/2020 10:00"), seconds("02/12/2020 11:00")));
+		assertEquals(2500, table.cents(seconds("06/01/2020 10:00"), seconds("06/01/2020 11:00")));
+	}
+}
@@ -0,0 +1,148 @@
+package project.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ResultCacheTest {
+
+	@Test
+	void testHitsAndMisses() {
+		// Arrange
+		ResultCache<String, List<Integer>> cache = new ResultCache<>(60000, 10);
+		AtomicInteger loads = new AtomicInteger();
+		// Act
+		cache.get("a", () -> List.of(loads.incrementAndGet()));
+		List<Integer> cached = cache.get("a", () -> List.of(loads.incrementAndGet()));
+		// Assert
+		assertEquals(List.of(1), cached);
+		assertEquals(1, cache.hits());
+		assertEquals(1, cache.misses());
+	}
+
+	@Test
+	void testEvictEldest() {
+		// Arrange
+		ResultCache<String, String> cache = new ResultCache<>(60000, 2);
+		cache.get("a", () -> "a");
+		cache.get("b", () -> "b");
+		// Act
+		cache.get("c", () -> "c");
+		// Assert
+		assertEquals(2, cache.size());
+		assertEquals("a2", cache.get("a", () -> "a2"));
+	}
+
+	@Test
+	void testExpiration() throws Exception {
+		// Arrange
+		ResultCache<String, String> cache = new ResultCache<>(1, 10);
+		cache.get("a", () -> "old");
+		// Act
+		Thread.sleep(5);
+		// Assert
+		assertEquals("new", cache.get("a", () -> "new"));
+	}
+
+	@Test
+	void testInvalidateIf() {
+		// Arrange
+		ResultCache<String, List<Integer>> cache = new ResultCache<>(60000, 10);
+		cache.get("a", () -> List.of(1, 2));
+		cache.get("b", () -> List.of(3));
+		// Act
+		int removed = cache.invalidateIf((key, ids) -> ids.contains(2));
+		// Assert
+		assertEquals(1, removed);
+		assertEquals(List.of(3), cache.get("b", () -> List.of()));
+		assertEquals(List.of(), cache.get("a", () -> List.of()));
+	}
+
+	@Test
+	void testFailedLoadIsNotCached() {
+		// Arrange
+		ResultCache<String, String> cache = new ResultCache<>(60000, 10);
+		// Act
+		assertThrows(IllegalStateException.class, () -> cache.get("a", () -> {
+			throw new IllegalStateException();
+		}));
+		// Assert
+		assertEquals(0, cache.size());
+		assertEquals("a", cache.get("a", () -> "a"));
+	}
+
+	@Test
+	void testConcurrentMissesLoadOnce() throws Exception {
+		// Arrange
+		ResultCache<String, String> cache = new ResultCache<>(60000, 10);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<String> first = executor.submit(() -> cache.get("a", () -> {
+				loads.incrementAndGet();
+				loading.countDown();
+				await(release);
+				return "a";
+			}));
+			loading.await();
+			// Act
+			Future<String> second = executor.submit(() -> cache.get("a", () -> "other"));
+			Future<String> third = executor.submit(() -> cache.get("a", () -> "other"));
+			release.countDown();
+			// Assert
+			assertEquals("a", first.get(5, TimeUnit.SECONDS));
+			assertEquals("a", second.get(5, TimeUnit.SECONDS));
+			assertEquals("a", third.get(5, TimeUnit.SECONDS));
+			assertEquals(1, loads.get());
+			assertEquals(1, cache.misses());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testStuckLoadIsNotAwaited() throws Exception {
+		// Arrange
+		ResultCache<String, String> cache = new ResultCache<>(60000, 10, 50);
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> first = executor.submit(() -> cache.get("a", () -> {
+				loading.countDown();
+				await(release);
+				return "a";
+			}));
+			loading.await();
+			// Act
+			String second = cache.get("a", () -> "direct");
+			release.countDown();
+			// Assert
+			assertEquals("direct", second);
+			assertEquals("a", first.get(5, TimeUnit.SECONDS));
+			assertEquals("a", cache.get("a", () -> "other"));
+			assertEquals(2, cache.misses());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package project.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SpatialIndexTest {
+
+	@Test
+	void testHaversine() {
+		// Paris - Nantes ~ 342 km
+		double distance = SpatialIndex.haversine(48.8566, 2.3522, 47.2184, -1.5536);
+		assertEquals(342, distance, 2);
+	}
+
+	@Test
+	void testNearest() {
+		// Arrange
+		SpatialIndex index = new SpatialIndex(0.05);
+		index.put(1, 48.956877, 2.06249);
+		index.put(2, 48.96, 2.07);
+		index.put(3, 48.90, 2.06);
+		index.put(4, 47.2184, -1.5536);
+		// Act
+		List<Integer> nearest = index.nearest(48.957, 2.063, 10, 10);
+		List<Integer> first = index.nearest(48.957, 2.063, 10, 2);
+		// Assert
+		assertEquals(List.of(1, 2, 3), nearest);
+		assertEquals(List.of(1, 2), first);
+		assertTrue(index.nearest(48.957, 2.063, 0.01, 10).isEmpty());
+	}
+
+	@Test
+	void testMoveAndRemove() {
+		// Arrange
+		SpatialIndex index = new SpatialIndex(0.05);
+		index.put(1, 48.95, 2.06);
+		// Act
+		index.put(1, 47.2184, -1.5536);
+		// Assert
+		assertTrue(index.nearest(48.95, 2.06, 5, 10).isEmpty());
+		assertEquals(List.of(1), index.nearest(47.22, -1.55, 5, 10));
+		index.remove(1);
+		assertEquals(0, index.size());
+		assertTrue(index.nearest(47.22, -1.55, 5, 10).isEmpty());
+	}
+
+	@Test
+	void testAntimeridian() {
+		// Arrange
+		SpatialIndex index = new SpatialIndex(0.05);
+		index.put(1, 0, 179.99);
+		// Act & Assert
+		assertEquals(List.of(1), index.nearest(0, -179.99, 5, 10));
+	}
+}
@@ -0,0 +1,53 @@
+package project.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+	@Test
+	void testExpiration() {
+		// Arrange
+		TimingWheel<String> wheel = new TimingWheel<>(8, 1000, 0);
+		List<String> expired = new ArrayList<>();
+		wheel.schedule("a", 1500);
+		wheel.schedule("b", 3000);
+		// Act & Assert
+		wheel.advance(1999, expired::add);
+		assertTrue(expired.isEmpty());
+		wheel.advance(2000, expired::add);
+		assertEquals(List.of("a"), expired);
+		wheel.advance(3000, expired::add);
+		assertEquals(List.of("a", "b"), expired);
+	}
+
+	@Test
+	void testExpirationBeyondOneRound() {
+		// Arrange
+		TimingWheel<String> wheel = new TimingWheel<>(8, 1000, 0);
+		List<String> expired = new ArrayList<>();
+		wheel.schedule("late", 20000);
+		// Act & Assert
+		wheel.advance(12000, expired::add);
+		assertTrue(expired.isEmpty());
+		wheel.advance(60000, expired::add);
+		assertEquals(List.of("late"), expired);
+	}
+
+	@Test
+	void testCancel() {
+		// Arrange
+		TimingWheel<String> wheel = new TimingWheel<>(8, 1000, 0);
+		List<String> expired = new ArrayList<>();
+		wheel.schedule("a", 1000).cancel();
+		// Act
+		wheel.advance(5000, expired::add);
+		// Assert
+		assertTrue(expired.isEmpty());
+	}
+}
@@ -0,0 +1,48 @@
+package project.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TrigramIndexTest {
+
+	@Test
+	void testTrigrams() {
+		assertEquals(5, TrigramIndex.trigrams("Élan").size());
+		assertTrue(TrigramIndex.trigrams("Élan").contains("ela"));
+		assertTrue(TrigramIndex.trigrams(" ,; ").isEmpty());
+	}
+
+	@Test
+	void testSearch() {
+		// Arrange
+		TrigramIndex index = new TrigramIndex(0.6);
+		index.put(1, List.of("le dancing", "salle de danse", "Achères", "wifi"));
+		index.put(2, List.of("La Cave", "bar", "Nantes", "sono"));
+		index.put(3, List.of("Dancing Queen et grande salle de concert", "salle de spectacle", "Paris"));
+		// Act & Assert
+		assertEquals(List.of(1, 3), index.search("dancing"));
+		assertEquals(List.of(1, 3), index.search("dancng"));
+		assertEquals(List.of(1), index.search("acheres"));
+		assertEquals(List.of(2), index.search("CAVE"));
+		assertTrue(index.search("piscine").isEmpty());
+	}
+
+	@Test
+	void testUpdate() {
+		// Arrange
+		TrigramIndex index = new TrigramIndex(0.6);
+		index.put(1, List.of("le dancing"));
+		// Act
+		index.put(1, List.of("la cave"));
+		// Assert
+		assertTrue(index.search("dancing").isEmpty());
+		assertEquals(List.of(1), index.search("cave"));
+		index.remove(1);
+		assertEquals(0, index.size());
+		assertTrue(index.search("cave").isEmpty());
+	}
+}